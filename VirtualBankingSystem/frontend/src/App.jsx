@@ -11,6 +11,7 @@ import DepositModal from './components/DepositModal';
 import WithdrawModal from './components/WithdrawModal';
 import Transfer from './components/Transfer';
 import Passbook from './components/Passbook';
+import { clearSessionToken } from './services/api';
 
 // Context for user state
 export const UserContext = React.createContext();
@@ -47,6 +48,7 @@ function App() {
   };
 
   const logout = () => {
+    clearSessionToken();
     setUser(null);
   };
 
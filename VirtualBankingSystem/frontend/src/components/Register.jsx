@@ -56,7 +56,7 @@ const Register = () => {
     if (!validateForm()) return;
     setLoading(true);
     try {
-      const user = await customerAPI.register({
+      await customerAPI.register({
         username: formData.username,
         password: formData.password,
         firstName: formData.firstName,
@@ -64,6 +64,8 @@ const Register = () => {
         email: formData.email,
         phoneNumber: formData.phoneNumber
       });
+      // Log in straight away to pick up a session token
+      const user = await customerAPI.login(formData.username, formData.password);
       login(user);
       navigate('/dashboard');
     } catch (error) {
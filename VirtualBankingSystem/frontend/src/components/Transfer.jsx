@@ -49,7 +49,7 @@ const Transfer = () => {
     setError(null);
 
     try {
-      const data = await customerAPI.getByUsername(formData.username);
+      const data = await customerAPI.lookupRecipient(formData.username);
       setRecipient(data);
       setStep('confirm');
     } catch (error) {
@@ -92,10 +92,10 @@ const Transfer = () => {
         user.id,
         recipient.id,
         parseFloat(formData.amount),
-        formData.description || `Transfer to ${recipient.firstName} ${recipient.lastName}`
+        formData.description || `Transfer to ${recipient.displayName}`
       );
 
-      setSuccess(`Successfully transferred $${formData.amount} to ${recipient.firstName} ${recipient.lastName}`);
+      setSuccess(`Successfully transferred $${formData.amount} to ${recipient.displayName}`);
       setStep('complete');
       
       // Reset form
@@ -200,9 +200,8 @@ const Transfer = () => {
               <div className="p-4 bg-green-50 rounded-lg mb-4">
                 <h3 className="text-lg font-semibold text-green-800 mb-2">Recipient Found</h3>
                 <div className="space-y-1 text-green-700">
-                  <p><strong>Name:</strong> {recipient.firstName} {recipient.lastName}</p>
+                  <p><strong>Name:</strong> {recipient.displayName}</p>
                   <p><strong>Username:</strong> {recipient.username}</p>
-                  <p><strong>Email:</strong> {recipient.email}</p>
                 </div>
               </div>
 
@@ -245,9 +244,9 @@ const Transfer = () => {
                 <div className="p-4 bg-gray-50 rounded-lg">
                   <h4 className="font-semibold mb-2">Transfer Summary</h4>
                   <div className="space-y-1 text-sm">
-                    <p><strong>To:</strong> {recipient.firstName} {recipient.lastName} ({recipient.username})</p>
+                    <p><strong>To:</strong> {recipient.displayName} ({recipient.username})</p>
                     <p><strong>Amount:</strong> {formatCurrency(parseFloat(formData.amount) || 0)}</p>
-                    <p><strong>Description:</strong> {formData.description || `Transfer to ${recipient.firstName} ${recipient.lastName}`}</p>
+                    <p><strong>Description:</strong> {formData.description || `Transfer to ${recipient.displayName}`}</p>
                     <p><strong>Remaining Balance:</strong> {formatCurrency(user.balance - (parseFloat(formData.amount) || 0))}</p>
                   </div>
                 </div>
@@ -11,6 +11,19 @@ const api = axios.create({
   timeout: 10000, // 10 second timeout - increased for slower backends
 });
 
+const TOKEN_KEY = 'bankingToken';
+
+// Attach the session token issued at login
+api.interceptors.request.use((config) => {
+  const token = localStorage.getItem(TOKEN_KEY);
+  if (token) {
+    config.headers.Authorization = `Bearer ${token}`;
+  }
+  return config;
+});
+
+export const clearSessionToken = () => localStorage.removeItem(TOKEN_KEY);
+
 // Helper function to check if we should use fallback
 const shouldUseFallback = (error) => {
   return error.code === 'ECONNREFUSED' || 
@@ -39,7 +52,8 @@ export const customerAPI = {
         username,
         password
       });
-      return response.data;
+      localStorage.setItem(TOKEN_KEY, response.data.token);
+      return response.data.customer;
     } catch (error) {
       throw error.response?.data || error.message;
     }
@@ -81,6 +95,26 @@ export const customerAPI = {
     }
   },
 
+  // Resolve a transfer recipient from the in-memory directory (id, username, displayName only)
+  lookupRecipient: async (username) => {
+    try {
+      const response = await api.get(`/customers/directory/${encodeURIComponent(username)}`);
+      return response.data;
+    } catch (error) {
+      throw error.response?.data || error.message;
+    }
+  },
+
+  // Username autocomplete for the transfer form
+  searchByPrefix: async (prefix, limit = 10) => {
+    try {
+      const response = await api.get('/customers/search', { params: { prefix, limit } });
+      return response.data;
+    } catch (error) {
+      throw error.response?.data || error.message;
+    }
+  },
+
   // Get customer balance
   getBalance: async (customerId) => {
     try {
@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful deposit for each startup mode:
+#   default   - java -jar, ddl-auto=update, DEBUG logging
+#   prod      - prod profile (schema validate, lazy init, warm-up)
+#   prod-cds  - prod profile started from the extracted jar with the CDS archive
+#
+# Needs MySQL reachable with the configured credentials, the schema migrated
+# (./mvnw flyway:migrate ...) and an existing customer to log in as. Every
+# successful run deposits 0.01 into that customer's account.
+#
+# All modes sign tokens with VBS_TOKEN_SECRET (a random one is generated when
+# unset), so the token from one untimed login is accepted by every timed run.
+#
+# Usage: scripts/startup-benchmark.sh <username> <password> [runs]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+USERNAME=${1:?usage: $0 <username> <password> [runs]}
+PASSWORD=${2:?usage: $0 <username> <password> [runs]}
+RUNS=${3:-5}
+PORT=${PORT:-8080}
+JAR_NAME=VirtualBankingSystem-0.0.1-SNAPSHOT.jar
+export VBS_TOKEN_SECRET=${VBS_TOKEN_SECRET:-$(openssl rand -base64 32)}
+
+if [ ! -f "target/cds/application.jsa" ]; then
+  ./mvnw -q -Pcds package -DskipTests
+fi
+
+# Runs in a background subshell; exec so that $! is the JVM itself
+start_mode() {
+  case "$1" in
+    default)  exec java -jar "target/$JAR_NAME" --server.port="$PORT" --vbs.auth.token-secret="$VBS_TOKEN_SECRET" ;;
+    prod)     exec java -jar "target/$JAR_NAME" --server.port="$PORT" --spring.profiles.active=prod ;;
+    prod-cds) cd target/cds && exec java -XX:SharedArchiveFile=application.jsa -jar "$JAR_NAME" \
+                --server.port="$PORT" --spring.profiles.active=prod ;;
+  esac
+}
+
+# Log in once, untimed, to get a token and the customer id
+start_mode default > target/startup-login.log 2>&1 &
+pid=$!
+status=000
+until [ "$status" = "200" ]; do
+  if ! kill -0 "$pid" 2>/dev/null; then
+    echo "login run: application exited, see target/startup-login.log" >&2
+    exit 1
+  fi
+  sleep 0.2
+  status=$(curl -s -o target/startup-login.json -w '%{http_code}' -X POST "http://localhost:$PORT/api/customers/login" \
+    -H 'Content-Type: application/json' \
+    -d "{\"username\": \"$USERNAME\", \"password\": \"$PASSWORD\"}" || true)
+  if [ "$status" = "400" ] || [ "$status" = "401" ]; then
+    echo "login failed for $USERNAME: $(cat target/startup-login.json)" >&2
+    kill "$pid"
+    exit 1
+  fi
+done
+kill "$pid"
+wait "$pid" 2>/dev/null || true
+login=$(cat target/startup-login.json)
+TOKEN=$(printf '%s' "$login" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+CUSTOMER_ID=$(printf '%s' "$login" | sed -n 's/.*"customer":{"id":\([0-9]*\).*/\1/p')
+
+for mode in default prod prod-cds; do
+  results=()
+  for ((run = 1; run <= RUNS; run++)); do
+    start=$(date +%s%N)
+    start_mode "$mode" > "target/startup-$mode-$run.log" 2>&1 &
+    pid=$!
+
+    status=000
+    while [ "$status" != "201" ]; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode run $run: application exited, see target/startup-$mode-$run.log" >&2
+        exit 1
+      fi
+      sleep 0.02
+      status=$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/transactions/deposit" \
+        -H 'Content-Type: application/json' \
+        -H "Authorization: Bearer $TOKEN" \
+        -d "{\"customerId\": $CUSTOMER_ID, \"amount\": 0.01, \"description\": \"Startup benchmark\"}" || true)
+      if [ "$status" = "401" ] || [ "$status" = "403" ]; then
+        echo "$mode run $run: deposit refused with $status, see target/startup-$mode-$run.log" >&2
+        kill "$pid"
+        exit 1
+      fi
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    results+=("$elapsed")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+
+  median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+  echo "$mode: median ${median} ms to first deposit (runs: ${results[*]})"
+done
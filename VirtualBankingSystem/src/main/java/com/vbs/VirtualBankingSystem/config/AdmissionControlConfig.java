@@ -0,0 +1,24 @@
+package com.vbs.VirtualBankingSystem.config;
+
+import com.vbs.VirtualBankingSystem.filter.AdmissionControlFilter;
+import com.vbs.VirtualBankingSystem.filter.AdmissionControlProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "vbs.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionControlProperties properties) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties));
+        registration.addUrlPatterns("/api/customers/*", "/api/transactions/*");
+        registration.setOrder(1);
+        return registration;
+    }
+}
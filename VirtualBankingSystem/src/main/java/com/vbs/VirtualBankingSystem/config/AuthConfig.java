@@ -0,0 +1,25 @@
+package com.vbs.VirtualBankingSystem.config;
+
+import com.vbs.VirtualBankingSystem.filter.SessionTokenFilter;
+import com.vbs.VirtualBankingSystem.service.SessionTokenService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AuthProperties.class)
+public class AuthConfig {
+
+    // Runs before admission control so rate limits can key on the authenticated customer
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokenService sessionTokenService,
+                                                                        AuthProperties properties) {
+        FilterRegistrationBean<SessionTokenFilter> registration =
+                new FilterRegistrationBean<>(new SessionTokenFilter(sessionTokenService, properties.isRequireToken(),
+                        properties.getAdminKey(), properties.getServiceKey()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(0);
+        return registration;
+    }
+}
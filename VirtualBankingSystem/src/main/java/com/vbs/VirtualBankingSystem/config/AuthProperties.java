@@ -0,0 +1,25 @@
+package com.vbs.VirtualBankingSystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "vbs.auth")
+public class AuthProperties {
+    // Base64 HMAC key shared by every node; a random per-process key is used when blank
+    private String tokenSecret = "";
+    private long tokenTtlMinutes = 60;
+
+    // Reject requests without a valid token instead of only attaching the identity when present
+    private boolean requireToken = false;
+
+    // Shared secret for operator endpoints (X-Admin-Key); they are refused while this is blank
+    private String adminKey = "";
+
+    // Shared secret for internal service clients (X-Service-Key) acting for any customer; refused while blank
+    private String serviceKey = "";
+
+    // Password hashing
+    private int hashIterations = 210_000;
+    private int credentialCacheSize = 10_000;
+}
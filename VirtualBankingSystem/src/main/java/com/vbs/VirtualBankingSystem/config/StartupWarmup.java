@@ -0,0 +1,162 @@
+package com.vbs.VirtualBankingSystem.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.service.CustomerService;
+import com.vbs.VirtualBankingSystem.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises the request paths before the web server starts accepting connections, so the first
+ * real requests don't pay for class loading, lazy bean creation and opening pooled connections.
+ * The default 200 iterations also get the hottest methods compiled by C1 (tier 3 starts at about
+ * 200 invocations), but stay far below the roughly 10k needed for C2; fully optimized code still
+ * only comes from live traffic.
+ *
+ * Deposits are only warmed against a dedicated fixture account ({@code vbs.warmup.customer-id}),
+ * in transactions that are always rolled back; the only trace they leave is gaps in the
+ * transactions id sequence. A deposit locks its customer row, so without a fixture only the
+ * non-locking read path (customer lookup, balance, serialization) is warmed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "vbs.warmup", name = "enabled", havingValue = "true")
+public class StartupWarmup implements SmartLifecycle {
+
+    // The embedded web server starts in phase Integer.MAX_VALUE - 2048; run before it
+    private static final int PHASE = Integer.MAX_VALUE - 4096;
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionService transactionService;
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${vbs.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${vbs.warmup.connections:10}")
+    private int connections;
+
+    @Value("${vbs.warmup.customer-id:}")
+    private Long fixtureCustomerId;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        long started = System.nanoTime();
+        try {
+            // Lazy initialization defers controllers until first use; create them now
+            applicationContext.getBeansWithAnnotation(RestController.class);
+            warmConnectionPool();
+            if (fixtureCustomerId != null) {
+                warmDepositPath(fixtureCustomerId);
+            } else {
+                warmReadPath();
+            }
+            log.info("Startup warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            // Warm-up is best effort and must never keep the node from starting
+            log.warn("Startup warm-up failed", e);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void warmConnectionPool() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                held.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Could only open {} of {} warm-up connections", held.size(), connections, e);
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Returned to the pool either way
+                }
+            }
+        }
+    }
+
+    private void warmDepositPath(Long customerId) {
+        TransactionTemplate rollbackOnly = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < iterations; i++) {
+            rollbackOnly.executeWithoutResult(status -> {
+                try {
+                    Transaction transaction = transactionService.depositMoney(customerId, BigDecimal.ONE, "Startup warm-up");
+                    objectMapper.writeValueAsBytes(transaction);
+                    Customer customer = customerService.getCustomerById(customerId);
+                    customerService.getCustomerBalance(customer);
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Warm-up serialization failed", e);
+                } finally {
+                    status.setRollbackOnly();
+                }
+            });
+        }
+    }
+
+    // Plain reads take no row locks, so any existing customer will do
+    private void warmReadPath() {
+        Long customerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM customers", Long.class);
+        if (customerId == null) {
+            return;
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int i = 0; i < iterations; i++) {
+            readOnly.executeWithoutResult(status -> {
+                try {
+                    Customer customer = customerService.getCustomerById(customerId);
+                    customerService.getCustomerBalance(customer);
+                    objectMapper.writeValueAsBytes(customer);
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Warm-up serialization failed", e);
+                }
+            });
+        }
+    }
+}
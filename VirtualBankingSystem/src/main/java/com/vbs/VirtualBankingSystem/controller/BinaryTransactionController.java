@@ -0,0 +1,136 @@
+package com.vbs.VirtualBankingSystem.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.vbs.VirtualBankingSystem.dto.BinaryOperationDTO;
+import com.vbs.VirtualBankingSystem.dto.BinaryResultDTO;
+import com.vbs.VirtualBankingSystem.filter.AdmissionControlFilter;
+import com.vbs.VirtualBankingSystem.service.BinaryOperationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * CBOR endpoints for internal high-throughput clients. Requests sent as {@code application/cbor}
+ * to the money-movement paths land here instead of the JSON handlers in {@link TransactionController}
+ * and get a flat {@link BinaryResultDTO} back. {@code /batch} takes a CBOR sequence (RFC 8742) of
+ * operations and streams one result per operation back in the same order.
+ *
+ * A batch pays one admission token per operation, not per request, and holds at most
+ * {@code vbs.binary.max-batch-operations}. When either runs out, the operation that hit the limit gets
+ * an ERROR result and the rest of the sequence is not read; everything after the last result was not run.
+ * An item that decodes but isn't a valid operation gets an ERROR result (without its {@code ref}, which
+ * couldn't be read) and the batch goes on. Broken CBOR ends the batch with one last ERROR result.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+public class BinaryTransactionController {
+
+    public static final String CBOR = "application/cbor";
+    public static final String CBOR_SEQUENCE = "application/cbor-seq";
+
+    private static final ObjectMapper CBOR_MAPPER = CBORMapper.builder().findAndAddModules().build();
+
+    private final BinaryOperationService binaryOperationService;
+
+    @Value("${vbs.binary.max-batch-operations:1000}")
+    private int maxBatchOperations;
+
+    @PostMapping(value = "/deposit", consumes = CBOR, produces = CBOR)
+    public ResponseEntity<BinaryResultDTO> depositMoney(@RequestBody BinaryOperationDTO operation,
+                                                        HttpServletRequest request) {
+        operation.setOp(BinaryOperationDTO.Op.DEPOSIT);
+        return respond(binaryOperationService.execute(operation, access(request)));
+    }
+
+    @PostMapping(value = "/withdraw", consumes = CBOR, produces = CBOR)
+    public ResponseEntity<BinaryResultDTO> withdrawMoney(@RequestBody BinaryOperationDTO operation,
+                                                         HttpServletRequest request) {
+        operation.setOp(BinaryOperationDTO.Op.WITHDRAW);
+        return respond(binaryOperationService.execute(operation, access(request)));
+    }
+
+    @PostMapping(value = "/transfer", consumes = CBOR, produces = CBOR)
+    public ResponseEntity<BinaryResultDTO> transferMoney(@RequestBody BinaryOperationDTO operation,
+                                                         HttpServletRequest request) {
+        operation.setOp(BinaryOperationDTO.Op.TRANSFER);
+        return respond(binaryOperationService.execute(operation, access(request)));
+    }
+
+    @PostMapping(value = "/batch", consumes = CBOR_SEQUENCE, produces = CBOR_SEQUENCE)
+    public void executeBatch(InputStream body, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Predicate<Long> access = access(request);
+        // Absent when admission control is disabled
+        BooleanSupplier quota = (BooleanSupplier) request.getAttribute(AdmissionControlFilter.OPERATION_QUOTA_ATTRIBUTE);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(CBOR_SEQUENCE);
+        try (MappingIterator<BinaryOperationDTO> operations = CBOR_MAPPER.readerFor(BinaryOperationDTO.class).readValues(body);
+             SequenceWriter results = CBOR_MAPPER.writer().writeValues(response.getOutputStream())) {
+            int count = 0;
+            while (true) {
+                BinaryOperationDTO operation;
+                String malformed = null;
+                try {
+                    if (!operations.hasNextValue()) {
+                        break;
+                    }
+                    operation = operations.nextValue();
+                } catch (DatabindException e) {
+                    // Well-formed CBOR that doesn't fit an operation; the iterator skips past it
+                    operation = new BinaryOperationDTO();
+                    malformed = "Malformed operation: " + e.getOriginalMessage();
+                } catch (JsonProcessingException e) {
+                    // Broken encoding: there is no telling where the next item starts
+                    results.write(BinaryOperationService.error(new BinaryOperationDTO(), BinaryResultDTO.Status.ERROR,
+                            "Malformed CBOR sequence, the rest of the batch was not read"));
+                    return;
+                }
+                count++;
+                if (count > maxBatchOperations) {
+                    results.write(BinaryOperationService.error(operation, BinaryResultDTO.Status.ERROR,
+                            "Batch is limited to " + maxBatchOperations + " operations"));
+                    return;
+                }
+                if (malformed != null) {
+                    results.write(BinaryOperationService.error(operation, BinaryResultDTO.Status.ERROR, malformed));
+                    continue;
+                }
+                // The request itself paid for the first operation
+                if (count > 1 && quota != null && !quota.getAsBoolean()) {
+                    results.write(BinaryOperationService.error(operation, BinaryResultDTO.Status.ERROR,
+                            "Rate limit exceeded, retry later"));
+                    return;
+                }
+                results.write(binaryOperationService.execute(operation, access));
+            }
+        }
+    }
+
+    private static Predicate<Long> access(HttpServletRequest request) {
+        return customerId -> CustomerAccess.isAllowed(request, customerId);
+    }
+
+    private static ResponseEntity<BinaryResultDTO> respond(BinaryResultDTO result) {
+        HttpStatus status = switch (result.getStatus()) {
+            case OK -> HttpStatus.CREATED;
+            case ACCEPTED -> HttpStatus.ACCEPTED;
+            case ERROR -> HttpStatus.BAD_REQUEST;
+            case FORBIDDEN -> HttpStatus.FORBIDDEN;
+        };
+        return ResponseEntity.status(status).body(result);
+    }
+}
@@ -0,0 +1,38 @@
+package com.vbs.VirtualBankingSystem.controller;
+
+import com.vbs.VirtualBankingSystem.filter.SessionTokenFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ownership checks for ids that arrive in request bodies or belong to looked-up resources, which
+ * {@link SessionTokenFilter} can't see. Requests without a token carry no identity; they pass only
+ * when the filter marked them as allowed anonymously, so a request that never went through it fails.
+ * Service clients act for every customer.
+ */
+final class CustomerAccess {
+
+    private CustomerAccess() {
+    }
+
+    static boolean isAllowed(HttpServletRequest request, Long customerId) {
+        if (Boolean.TRUE.equals(request.getAttribute(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE))) {
+            return true;
+        }
+        Object authenticated = request.getAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE);
+        if (authenticated == null) {
+            return Boolean.TRUE.equals(request.getAttribute(SessionTokenFilter.ANONYMOUS_ATTRIBUTE));
+        }
+        return authenticated.equals(customerId);
+    }
+
+    static ResponseEntity<Map<String, String>> forbidden() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Session token does not belong to this customer");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+}
@@ -1,14 +1,29 @@
 package com.vbs.VirtualBankingSystem.controller;
 
+import com.vbs.VirtualBankingSystem.dto.BalanceAsOfDTO;
+import com.vbs.VirtualBankingSystem.dto.CustomerSummaryDTO;
+import com.vbs.VirtualBankingSystem.dto.ImportReportDTO;
+import com.vbs.VirtualBankingSystem.dto.LoginResponseDTO;
 import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.service.BalanceSnapshotService;
+import com.vbs.VirtualBankingSystem.service.CustomerDirectory;
+import com.vbs.VirtualBankingSystem.service.CustomerImportService;
 import com.vbs.VirtualBankingSystem.service.CustomerService;
+import com.vbs.VirtualBankingSystem.service.SessionTokenService;
+import com.vbs.VirtualBankingSystem.service.StripedBalanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +33,21 @@ import java.util.Map;
 public class CustomerController {
     @Autowired
     private CustomerService customerService;
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private CustomerDirectory customerDirectory;
+
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
     
     @PostMapping("/register")
     public ResponseEntity<?> registerCustomer(@RequestBody Customer customer) {
@@ -31,11 +61,27 @@ public class CustomerController {
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importCustomers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             InputStream body) {
+        try {
+            ImportReportDTO report = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                    ? customerImportService.importCsv(body)
+                    : customerImportService.importNdjson(body);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
     @PostMapping("/login")
     public ResponseEntity<?> loginCustomer(@RequestBody LoginRequest loginRequest) {
         try {
             Customer customer = customerService.loginCustomer(loginRequest.getUsername(), loginRequest.getPassword());
-            return ResponseEntity.ok(customer);
+            String token = sessionTokenService.issue(customer.getId());
+            return ResponseEntity.ok(new LoginResponseDTO(token, sessionTokenService.getTtlSeconds(), customer));
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -67,6 +113,29 @@ public class CustomerController {
         }
     }
     
+    @GetMapping("/directory/{username}")
+    public ResponseEntity<?> lookupRecipient(@PathVariable String username) {
+        return customerDirectory.find(username)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Customer not found with username: " + username);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<?> searchCustomers(@RequestParam String prefix,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit < 1 || limit > 50) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Prefix must not be blank and limit must be between 1 and 50");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        List<CustomerSummaryDTO> matches = customerDirectory.searchByPrefix(prefix, limit);
+        return ResponseEntity.ok(matches);
+    }
+    
     @GetMapping("/{id}/balance")
     public ResponseEntity<?> getCustomerBalance(@PathVariable Long id) {
         try {
@@ -74,7 +143,7 @@ public class CustomerController {
             Map<String, Object> response = new HashMap<>();
             response.put("customerId", customer.getId());
             response.put("username", customer.getUsername());
-            response.put("balance", customer.getBalance());
+            response.put("balance", customerService.getCustomerBalance(customer));
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
@@ -83,6 +152,43 @@ public class CustomerController {
         }
     }
     
+    @GetMapping("/{id}/balance/as-of")
+    public ResponseEntity<?> getCustomerBalanceAsOf(@PathVariable Long id,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            BalanceAsOfDTO balance = balanceSnapshotService.getBalanceAsOf(id, at);
+            return ResponseEntity.ok(balance);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+    
+    @PostMapping("/{id}/striping")
+    public ResponseEntity<?> enableBalanceStriping(@PathVariable Long id, @RequestParam int slots) {
+        try {
+            Customer customer = stripedBalanceService.enableStriping(id, slots);
+            return ResponseEntity.ok(customer);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    @DeleteMapping("/{id}/striping")
+    public ResponseEntity<?> disableBalanceStriping(@PathVariable Long id) {
+        try {
+            Customer customer = stripedBalanceService.disableStriping(id);
+            return ResponseEntity.ok(customer);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
     // Inner class for login request
     public static class LoginRequest {
         private String username;
@@ -0,0 +1,165 @@
+package com.vbs.VirtualBankingSystem.controller;
+
+import com.vbs.VirtualBankingSystem.model.ScheduledTransfer;
+import com.vbs.VirtualBankingSystem.model.ScheduledTransferExecution;
+import com.vbs.VirtualBankingSystem.service.ScheduledTransferScheduler;
+import com.vbs.VirtualBankingSystem.service.ScheduledTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, maxAge = 3600)
+public class ScheduledTransferController {
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+
+    @Autowired
+    private ScheduledTransferScheduler scheduledTransferScheduler;
+
+    @PostMapping
+    public ResponseEntity<?> createScheduledTransfer(@RequestBody ScheduledTransferRequest request,
+                                                     HttpServletRequest httpRequest) {
+        if (!CustomerAccess.isAllowed(httpRequest, request.getFromCustomerId())) {
+            return CustomerAccess.forbidden();
+        }
+        try {
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.createScheduledTransfer(
+                    request.getFromCustomerId(),
+                    request.getToCustomerId(),
+                    request.getAmount(),
+                    request.getDescription(),
+                    request.getFrequency(),
+                    request.getFirstRunAt(),
+                    request.getEndAt()
+            );
+            scheduledTransferScheduler.enqueue(scheduledTransfer);
+            return ResponseEntity.status(HttpStatus.CREATED).body(scheduledTransfer);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<?> getCustomerScheduledTransfers(@PathVariable Long customerId) {
+        try {
+            List<ScheduledTransfer> scheduledTransfers = scheduledTransferService.getCustomerScheduledTransfers(customerId);
+            return ResponseEntity.ok(scheduledTransfers);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    @GetMapping("/{id}/executions")
+    public ResponseEntity<?> getExecutions(@PathVariable Long id, HttpServletRequest httpRequest) {
+        try {
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.getScheduledTransferById(id);
+            if (!CustomerAccess.isAllowed(httpRequest, scheduledTransfer.getFromCustomerId())) {
+                return CustomerAccess.forbidden();
+            }
+            List<ScheduledTransferExecution> executions = scheduledTransferService.getExecutions(id);
+            return ResponseEntity.ok(executions);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelScheduledTransfer(@PathVariable Long id, HttpServletRequest httpRequest) {
+        try {
+            if (!CustomerAccess.isAllowed(httpRequest, scheduledTransferService.getScheduledTransferById(id).getFromCustomerId())) {
+                return CustomerAccess.forbidden();
+            }
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.cancelScheduledTransfer(id);
+            return ResponseEntity.ok(scheduledTransfer);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    // Inner class for scheduled transfer request
+    public static class ScheduledTransferRequest {
+        private Long fromCustomerId;
+        private Long toCustomerId;
+        private BigDecimal amount;
+        private String description;
+        private ScheduledTransfer.Frequency frequency;
+        private LocalDateTime firstRunAt;
+        private LocalDateTime endAt;
+
+        public Long getFromCustomerId() {
+            return fromCustomerId;
+        }
+
+        public void setFromCustomerId(Long fromCustomerId) {
+            this.fromCustomerId = fromCustomerId;
+        }
+
+        public Long getToCustomerId() {
+            return toCustomerId;
+        }
+
+        public void setToCustomerId(Long toCustomerId) {
+            this.toCustomerId = toCustomerId;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public ScheduledTransfer.Frequency getFrequency() {
+            return frequency;
+        }
+
+        public void setFrequency(ScheduledTransfer.Frequency frequency) {
+            this.frequency = frequency;
+        }
+
+        public LocalDateTime getFirstRunAt() {
+            return firstRunAt;
+        }
+
+        public void setFirstRunAt(LocalDateTime firstRunAt) {
+            this.firstRunAt = firstRunAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+
+        public void setEndAt(LocalDateTime endAt) {
+            this.endAt = endAt;
+        }
+    }
+}
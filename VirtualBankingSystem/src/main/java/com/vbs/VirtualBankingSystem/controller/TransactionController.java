@@ -1,15 +1,23 @@
 package com.vbs.VirtualBankingSystem.controller;
 
+import com.vbs.VirtualBankingSystem.journal.JournalEntry;
+import com.vbs.VirtualBankingSystem.journal.JournalReceipt;
+import com.vbs.VirtualBankingSystem.journal.JournalService;
+import com.vbs.VirtualBankingSystem.journal.JournalUnavailableException;
 import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.service.TransactionSearchService;
 import com.vbs.VirtualBankingSystem.service.TransactionService;
 import com.vbs.VirtualBankingSystem.dto.PassbookDTO;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,8 +30,21 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private JournalService journalService;
+
     @PostMapping("/deposit")
-    public ResponseEntity<?> depositMoney(@RequestBody TransactionRequest request) {
+    public ResponseEntity<?> depositMoney(@RequestBody TransactionRequest request, HttpServletRequest httpRequest) {
+        if (!CustomerAccess.isAllowed(httpRequest, request.getCustomerId())) {
+            return CustomerAccess.forbidden();
+        }
+        if (journalService.isEnabled()) {
+            return journaled(JournalEntry.Type.DEPOSIT, request.getCustomerId(), null,
+                    request.getAmount(), request.getDescription(), request.getIdempotencyKey());
+        }
         try {
             Transaction transaction = transactionService.depositMoney(
                     request.getCustomerId(),
@@ -39,7 +60,14 @@ public class TransactionController {
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<?> withdrawMoney(@RequestBody TransactionRequest request) {
+    public ResponseEntity<?> withdrawMoney(@RequestBody TransactionRequest request, HttpServletRequest httpRequest) {
+        if (!CustomerAccess.isAllowed(httpRequest, request.getCustomerId())) {
+            return CustomerAccess.forbidden();
+        }
+        if (journalService.isEnabled()) {
+            return journaled(JournalEntry.Type.WITHDRAWAL, request.getCustomerId(), null,
+                    request.getAmount(), request.getDescription(), request.getIdempotencyKey());
+        }
         try {
             Transaction transaction = transactionService.withdrawMoney(
                     request.getCustomerId(),
@@ -55,7 +83,14 @@ public class TransactionController {
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<?> transferMoney(@RequestBody TransferRequest request) {
+    public ResponseEntity<?> transferMoney(@RequestBody TransferRequest request, HttpServletRequest httpRequest) {
+        if (!CustomerAccess.isAllowed(httpRequest, request.getFromCustomerId())) {
+            return CustomerAccess.forbidden();
+        }
+        if (journalService.isEnabled()) {
+            return journaled(JournalEntry.Type.TRANSFER, request.getFromCustomerId(), request.getToCustomerId(),
+                    request.getAmount(), request.getDescription(), request.getIdempotencyKey());
+        }
         try {
             List<Transaction> transactions = transactionService.transferMoney(
                     request.getFromCustomerId(),
@@ -71,6 +106,29 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/journal/{sequence}")
+    public ResponseEntity<?> getJournalEntryStatus(@PathVariable long sequence,
+                                                   @RequestParam(required = false) String journalId,
+                                                   HttpServletRequest httpRequest) {
+        String journal = journalId != null ? journalId : journalService.getJournalId();
+        return journalService.getStatus(journal, sequence)
+                .<ResponseEntity<?>>map(entry -> {
+                    if (!CustomerAccess.isAllowed(httpRequest, entry.customerId())) {
+                        return CustomerAccess.forbidden();
+                    }
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("journalId", journal);
+                    response.put("sequence", sequence);
+                    response.put("status", entry.status());
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Journal entry not found: " + sequence);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
+
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<?> getCustomerTransactions(@PathVariable Long customerId) {
         try {
@@ -84,9 +142,12 @@ public class TransactionController {
     }
 
     @GetMapping("/{transactionId}")
-    public ResponseEntity<?> getTransaction(@PathVariable Long transactionId) {
+    public ResponseEntity<?> getTransaction(@PathVariable Long transactionId, HttpServletRequest httpRequest) {
         try {
             Transaction transaction = transactionService.getTransactionById(transactionId);
+            if (!CustomerAccess.isAllowed(httpRequest, transaction.getCustomer().getId())) {
+                return CustomerAccess.forbidden();
+            }
             return ResponseEntity.ok(transaction);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
@@ -107,6 +168,44 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/customer/{customerId}/search")
+    public ResponseEntity<?> searchCustomerTransactions(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Limit must be between 1 and 500");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        try {
+            List<PassbookDTO.TransactionSummaryDTO> results = transactionSearchService.search(
+                    customerId, q, type, minAmount, maxAmount, from, to, limit);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        if (!transactionSearchService.rebuildInBackground()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "A search index rebuild is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "Rebuild started");
+        return ResponseEntity.accepted().body(response);
+    }
+
     @GetMapping("/debug/customer/{customerId}")
     public ResponseEntity<?> debugCustomerTransactions(@PathVariable Long customerId) {
         try {
@@ -126,11 +225,35 @@ public class TransactionController {
         }
     }
 
+    // Acknowledged once durable in the local journal; applied to the database in the background
+    private ResponseEntity<?> journaled(JournalEntry.Type type, Long customerId, Long toCustomerId,
+                                        BigDecimal amount, String description, String idempotencyKey) {
+        try {
+            JournalReceipt receipt = journalService.submit(type, customerId, toCustomerId, amount, description,
+                    idempotencyKey);
+            Map<String, Object> response = new HashMap<>();
+            response.put("journalId", receipt.journalId());
+            response.put("sequence", receipt.sequence());
+            response.put("status", "PENDING");
+            return ResponseEntity.accepted().body(response);
+        } catch (JournalUnavailableException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     // Inner class for transaction request
     public static class TransactionRequest {
         private Long customerId;
         private BigDecimal amount;
         private String description;
+        // Optional; only used when the journal is enabled, to make retries safe
+        private String idempotencyKey;
 
         public Long getCustomerId() {
             return customerId;
@@ -155,6 +278,14 @@ public class TransactionController {
         public void setDescription(String description) {
             this.description = description;
         }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public void setIdempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
     }
 
     // Inner class for transfer request
@@ -163,6 +294,8 @@ public class TransactionController {
         private Long toCustomerId;
         private BigDecimal amount;
         private String description;
+        // Optional; only used when the journal is enabled, to make retries safe
+        private String idempotencyKey;
 
         public Long getFromCustomerId() {
             return fromCustomerId;
@@ -195,5 +328,13 @@ public class TransactionController {
         public void setDescription(String description) {
             this.description = description;
         }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public void setIdempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
     }
 }
\ No newline at end of file
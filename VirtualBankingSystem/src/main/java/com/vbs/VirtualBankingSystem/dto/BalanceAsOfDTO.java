@@ -0,0 +1,20 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAsOfDTO {
+    private Long customerId;
+    private LocalDateTime asOf;
+    private BigDecimal balance;
+    // Null when no snapshot precedes asOf and the whole history was replayed
+    private LocalDateTime snapshotAsOf;
+    private int replayedTransactions;
+}
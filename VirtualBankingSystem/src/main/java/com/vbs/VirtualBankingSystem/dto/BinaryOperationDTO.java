@@ -0,0 +1,31 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One operation sent by a binary (CBOR) client. {@code ref} is chosen by the client and echoed
+ * back on the result. {@code idempotencyKey} makes a journaled money movement safe to retry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinaryOperationDTO {
+    private Op op;
+    private Long ref;
+    private Long customerId;
+    private Long toCustomerId;
+    private BigDecimal amount;
+    private String description;
+    private String idempotencyKey;
+
+    public enum Op {
+        DEPOSIT,
+        WITHDRAW,
+        TRANSFER,
+        BALANCE
+    }
+}
@@ -0,0 +1,36 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat result for binary clients, in place of the Transaction entity graph. Only the fields that
+ * apply to the operation are set; unset ones are left out of the encoding.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BinaryResultDTO {
+    private Long ref;
+    private Status status;
+    // For transfers, the sender's withdrawal; the recipient's deposit is counterTransactionId
+    private Long transactionId;
+    private Long counterTransactionId;
+    private BigDecimal balance;
+    private Long timestamp;
+    // Journal and sequence number when the operation was acknowledged by the write-ahead journal
+    private String journalId;
+    private Long sequence;
+    private String error;
+
+    public enum Status {
+        OK,
+        ACCEPTED,
+        ERROR,
+        // The operation names a customer other than the one in the session token
+        FORBIDDEN
+    }
+}
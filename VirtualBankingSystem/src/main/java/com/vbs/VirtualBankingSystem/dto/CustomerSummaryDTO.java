@@ -0,0 +1,14 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryDTO {
+    private Long id;
+    private String username;
+    private String displayName;
+}
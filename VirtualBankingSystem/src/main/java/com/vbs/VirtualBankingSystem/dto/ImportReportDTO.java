@@ -0,0 +1,27 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long totalLines;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private List<LineErrorDTO> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineErrorDTO {
+        private long line;
+        private String error;
+    }
+}
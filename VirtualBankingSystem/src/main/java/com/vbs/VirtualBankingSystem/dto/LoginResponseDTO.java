@@ -0,0 +1,15 @@
+package com.vbs.VirtualBankingSystem.dto;
+
+import com.vbs.VirtualBankingSystem.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponseDTO {
+    private String token;
+    private long expiresIn;
+    private Customer customer;
+}
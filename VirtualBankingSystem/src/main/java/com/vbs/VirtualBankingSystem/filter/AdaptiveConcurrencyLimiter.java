@@ -0,0 +1,93 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style concurrency limit. Once per sample window the average latency is compared
+ * with the best latency seen recently: when requests slow down the limit shrinks towards
+ * {@code limit * minRtt / sampleRtt}, and when they don't it grows by roughly sqrt(limit).
+ * Low-priority requests may only use {@code lowPriorityShare} of the limit, which leaves
+ * headroom for high-priority ones under load.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int MIN_RTT_RESET_WINDOWS = 300;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Samples are accumulated without locking; only the thread that closes a window takes the lock
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private volatile long windowStart = System.nanoTime();
+    private long minRttNanos;
+    private int windowsSinceMinReset;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double lowPriorityShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    boolean tryAcquire(boolean highPriority) {
+        int cap = highPriority ? (int) limit : Math.max(1, (int) (limit * lowPriorityShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        if (System.nanoTime() - windowStart >= WINDOW_NANOS) {
+            closeWindow();
+        }
+    }
+
+    private synchronized void closeWindow() {
+        long now = System.nanoTime();
+        if (now - windowStart < WINDOW_NANOS || windowSamples.sum() < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        long samples = windowSamples.sumThenReset();
+        long sampleRtt = windowRttSum.sumThenReset() / samples;
+        windowStart = now;
+
+        // Periodically forget the old minimum so a permanently slower backend becomes the new baseline
+        if (minRttNanos == 0 || sampleRtt < minRttNanos || ++windowsSinceMinReset >= MIN_RTT_RESET_WINDOWS) {
+            minRttNanos = sampleRtt;
+            windowsSinceMinReset = 0;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * minRttNanos / Math.max(1, sampleRtt)));
+        double target = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,189 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the customer and transaction APIs.
+ * <ul>
+ *   <li>Per-customer token buckets, with separate quotas for money movement and everything else.
+ *       Over quota gets 429 with Retry-After.</li>
+ *   <li>An adaptive concurrency limit shared by all callers. Money movement may use all of it;
+ *       reads only a share. Over the limit gets 503 with Retry-After.</li>
+ * </ul>
+ * Callers are keyed by the customer in their session token, or by client address when there is none.
+ * Service-key clients have their own quota instead of a per-customer one.
+ * Ids from headers or the URL are never trusted for this, since anyone can put someone else's there.
+ * The forwarded-for header is only read when the request comes from a configured trusted proxy.
+ * Idle buckets are evicted by a background sweep rather than on the request thread.
+ *
+ * A money-movement request pays one token on admission, refunded if the concurrency limit turns it away. Handlers that carry several operations in one
+ * request (the CBOR batch) charge each further operation through the {@link #OPERATION_QUOTA_ATTRIBUTE}.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding a {@link BooleanSupplier} on money-movement requests: each call takes one
+     * more token from the caller's bucket and returns false once the quota is used up.
+     */
+    public static final String OPERATION_QUOTA_ATTRIBUTE = "vbs.operationQuota";
+
+    private static final Set<String> MONEY_MOVEMENT_PATHS = Set.of(
+            "/api/transactions/deposit",
+            "/api/transactions/withdraw",
+            "/api/transactions/transfer",
+            "/api/transactions/batch"
+    );
+
+    private static final String SERVICE_KEY = "service";
+
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+
+    private final AdmissionControlProperties properties;
+    private final Set<String> trustedProxies;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrentHashMap<String, TokenBucket> readBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> writeBuckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admission-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AdmissionControlFilter(AdmissionControlProperties properties) {
+        this.properties = properties;
+        this.trustedProxies = new HashSet<>(properties.getTrustedProxies());
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getReadShare()
+        );
+        sweeper.scheduleWithFixedDelay(this::evictIdleBuckets,
+                SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean moneyMovement = "POST".equals(request.getMethod())
+                && MONEY_MOVEMENT_PATHS.contains(SessionTokenFilter.lookupPath(request));
+        long now = System.nanoTime();
+
+        TokenBucket bucket = bucket(request, moneyMovement, now);
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Rate limit exceeded, retry later");
+            return;
+        }
+        if (moneyMovement) {
+            request.setAttribute(OPERATION_QUOTA_ATTRIBUTE, (BooleanSupplier) () -> bucket.tryAcquire(System.nanoTime()) == 0);
+        }
+
+        if (!limiter.tryAcquire(moneyMovement)) {
+            // Nothing was served, so the request shouldn't count against the caller's quota
+            bucket.refund();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server busy, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    // Full buckets carry no state, so dropping them is the same as starting fresh
+    void evictIdleBuckets() {
+        long now = System.nanoTime();
+        readBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        writeBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    int trackedKeys() {
+        return readBuckets.size() + writeBuckets.size();
+    }
+
+    private TokenBucket bucket(HttpServletRequest request, boolean moneyMovement, long now) {
+        ConcurrentHashMap<String, TokenBucket> buckets = moneyMovement ? writeBuckets : readBuckets;
+        if (Boolean.TRUE.equals(request.getAttribute(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE))) {
+            return buckets.computeIfAbsent(SERVICE_KEY, k -> moneyMovement
+                    ? new TokenBucket(properties.getServiceWriteRate(), properties.getServiceWriteBurst(), now)
+                    : new TokenBucket(properties.getServiceReadRate(), properties.getServiceReadBurst(), now));
+        }
+        return buckets.computeIfAbsent(customerKey(request), k -> moneyMovement
+                ? new TokenBucket(properties.getWriteRate(), properties.getWriteBurst(), now)
+                : new TokenBucket(properties.getReadRate(), properties.getReadBurst(), now));
+    }
+
+    private String customerKey(HttpServletRequest request) {
+        Object authenticated = request.getAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE);
+        if (authenticated != null) {
+            return "customer:" + authenticated;
+        }
+        return "address:" + clientAddress(request);
+    }
+
+    // Walks the forwarded-for chain from the right, past our own proxies. Entries left of the first
+    // untrusted hop were written by the client and are ignored.
+    String clientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!trustedProxies.contains(address)) {
+            return address;
+        }
+        Enumeration<String> headers = request.getHeaders(properties.getForwardedForHeader());
+        StringBuilder chain = new StringBuilder();
+        while (headers.hasMoreElements()) {
+            chain.append(chain.isEmpty() ? "" : ",").append(headers.nextElement());
+        }
+        String[] hops = chain.toString().split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            address = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
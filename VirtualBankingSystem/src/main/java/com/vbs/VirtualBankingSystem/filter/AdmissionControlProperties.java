@@ -0,0 +1,36 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "vbs.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+
+    // Per-customer quotas
+    private double readRate = 20;
+    private int readBurst = 40;
+    private double writeRate = 10;
+    private int writeBurst = 20;
+
+    // Service-key clients share one bucket per kind, sized for settlement and ATM traffic
+    private double serviceReadRate = 200;
+    private int serviceReadBurst = 400;
+    private double serviceWriteRate = 500;
+    private int serviceWriteBurst = 1000;
+
+    // Shared concurrency limit
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private double readShare = 0.7;
+
+    // Callers without a session token are keyed by client address. When the request comes from one of
+    // these proxy addresses, the client is the last address in the header that isn't a trusted proxy.
+    private String forwardedForHeader = "X-Forwarded-For";
+    private List<String> trustedProxies = new ArrayList<>();
+}
@@ -0,0 +1,166 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import com.vbs.VirtualBankingSystem.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the bearer session token and exposes the customer id as the {@link #CUSTOMER_ID_ATTRIBUTE}
+ * request attribute. Nothing here touches the database.
+ * <ul>
+ *   <li>Operator endpoints (bulk import, striping, search index rebuild) need the {@code X-Admin-Key}
+ *       header instead, and are refused with 403 when no admin key is configured.</li>
+ *   <li>Internal service clients (settlement, ATM switches) send the {@code X-Service-Key} header instead
+ *       of a token. It is only accepted on transaction endpoints, and marks the request with
+ *       {@link #SERVICE_CLIENT_ATTRIBUTE} so it may act for any customer.</li>
+ *   <li>An invalid or expired token gets 401.</li>
+ *   <li>A token for one customer used on another customer's URL gets 403.</li>
+ *   <li>A missing token gets 401 only when tokens are required. Otherwise the request is marked with
+ *       {@link #ANONYMOUS_ATTRIBUTE}, so controllers know the missing identity was allowed.</li>
+ * </ul>
+ * Paths are matched the way Spring MVC routes them: decoded, with {@code ;} parameters removed.
+ * Matching the raw URI would let {@code /api/customers/%69mport} or {@code /api/customers/7;x/balance}
+ * reach the same handler without the checks.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String CUSTOMER_ID_ATTRIBUTE = "vbs.customerId";
+
+    /**
+     * Set to {@link Boolean#TRUE} on requests let through without a token because tokens are optional.
+     */
+    public static final String ANONYMOUS_ATTRIBUTE = "vbs.anonymous";
+
+    /**
+     * Set to {@link Boolean#TRUE} on requests authenticated with the service key. They carry no customer
+     * identity and pass every ownership check.
+     */
+    public static final String SERVICE_CLIENT_ATTRIBUTE = "vbs.serviceClient";
+
+    public static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+    public static final String SERVICE_KEY_HEADER = "X-Service-Key";
+
+    private static final String BEARER = "Bearer ";
+
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+            "/api/customers/login",
+            "/api/customers/register"
+    );
+
+    private static final String SERVICE_PATH_PREFIX = "/api/transactions/";
+
+    private static final Pattern ADMIN_PATH = Pattern.compile(
+            "^/api/(?:customers/import|customers/\\d+/striping|transactions/search-index/rebuild)$");
+
+    // At most 18 digits, so every match fits in a long
+    private static final Pattern PATH_CUSTOMER_ID = Pattern.compile(
+            "^/api/(?:customers|transactions/customer|transactions/debug/customer|scheduled-transfers/customer)/(\\d{1,18})(?:/.*)?$");
+
+    private final SessionTokenService sessionTokenService;
+    private final boolean requireToken;
+    private final byte[] adminKey;
+    private final byte[] serviceKey;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService, boolean requireToken, String adminKey,
+                              String serviceKey) {
+        this.sessionTokenService = sessionTokenService;
+        this.requireToken = requireToken;
+        this.adminKey = keyBytes(adminKey);
+        this.serviceKey = keyBytes(serviceKey);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = lookupPath(request);
+        if ("OPTIONS".equals(request.getMethod()) || PUBLIC_PATHS.contains(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (ADMIN_PATH.matcher(path).matches()) {
+            if (adminKey == null) {
+                reject(response, HttpStatus.FORBIDDEN, "Admin access is not configured");
+                return;
+            }
+            if (!matches(adminKey, request.getHeader(ADMIN_KEY_HEADER))) {
+                reject(response, HttpStatus.FORBIDDEN, "Admin key required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String presentedServiceKey = request.getHeader(SERVICE_KEY_HEADER);
+        if (presentedServiceKey != null) {
+            if (serviceKey == null || !path.startsWith(SERVICE_PATH_PREFIX)
+                    || !matches(serviceKey, presentedServiceKey)) {
+                reject(response, HttpStatus.FORBIDDEN, "Service key not accepted");
+                return;
+            }
+            request.setAttribute(SERVICE_CLIENT_ATTRIBUTE, Boolean.TRUE);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            if (requireToken) {
+                reject(response, HttpStatus.UNAUTHORIZED, "Authentication required");
+                return;
+            }
+            request.setAttribute(ANONYMOUS_ATTRIBUTE, Boolean.TRUE);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        OptionalLong customerId = sessionTokenService.verify(header.substring(BEARER.length()).trim());
+        if (customerId.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Invalid or expired session token");
+            return;
+        }
+
+        Matcher matcher = PATH_CUSTOMER_ID.matcher(path);
+        if (matcher.matches() && Long.parseLong(matcher.group(1)) != customerId.getAsLong()) {
+            reject(response, HttpStatus.FORBIDDEN, "Session token does not belong to this customer");
+            return;
+        }
+
+        request.setAttribute(CUSTOMER_ID_ATTRIBUTE, customerId.getAsLong());
+        chain.doFilter(request, response);
+    }
+
+    // Decoded path within the application, with ;params removed and duplicate slashes merged
+    static String lookupPath(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    private static byte[] keyBytes(String key) {
+        return key == null || key.isBlank() ? null : key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(byte[] expected, String presented) {
+        return presented != null && MessageDigest.isEqual(expected, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,132 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import com.vbs.VirtualBankingSystem.model.JournalAppliedEntry;
+import com.vbs.VirtualBankingSystem.repository.JournalAppliedEntryRepository;
+import com.vbs.VirtualBankingSystem.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Applies journal entries through {@link TransactionService}, a whole batch per database transaction.
+ * If the batch fails, entries are retried one at a time. Ones the service rejects (e.g. insufficient
+ * balance) are recorded as REJECTED, as is an entry whose idempotency key another entry already
+ * used. Database failures propagate so the caller retries the batch. Transactions are stamped with
+ * the time the entry was accepted, not the time it was applied.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalApplier implements JournalSink {
+
+    private final JournalAppliedEntryRepository journalAppliedEntryRepository;
+    private final TransactionService transactionService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${vbs.journal.node-id:}")
+    private String journalId;
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public long findMaxSequence() {
+        Long max = journalAppliedEntryRepository.findMaxSequence(journalId);
+        return max == null ? 0 : max;
+    }
+
+    public Optional<JournalAppliedEntry> findOutcome(long sequence) {
+        return findOutcome(journalId, sequence);
+    }
+
+    public Optional<JournalAppliedEntry> findOutcome(String journalId, long sequence) {
+        return journalAppliedEntryRepository.findByJournalIdAndSequence(journalId, sequence);
+    }
+
+    public Optional<JournalAppliedEntry> findByIdempotencyKey(String idempotencyKey) {
+        return journalAppliedEntryRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    @Override
+    public Set<Long> findApplied(long fromSequence, long toSequence) {
+        return new HashSet<>(journalAppliedEntryRepository.findSequences(journalId, fromSequence, toSequence));
+    }
+
+    @Override
+    public void apply(List<JournalEntry> entries) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> entries.forEach(this::applyEntry));
+            return;
+        } catch (RuntimeException e) {
+            // Isolate the entry that failed the batch
+        }
+
+        for (JournalEntry entry : entries) {
+            try {
+                transaction.executeWithoutResult(status -> applyEntry(entry));
+            } catch (DataIntegrityViolationException e) {
+                if (!findApplied(entry.sequence(), entry.sequence()).isEmpty()) {
+                    continue;
+                }
+                Optional<JournalAppliedEntry> first = entry.idempotencyKey() == null
+                        ? Optional.empty()
+                        : findByIdempotencyKey(entry.idempotencyKey());
+                if (first.isPresent()) {
+                    // The key stays with the entry that used it first
+                    reject(transaction, entry, "Duplicate idempotency key, first used by journal entry "
+                            + first.get().getJournalId() + "/" + first.get().getSequence(), false);
+                } else {
+                    reject(transaction, entry, e.getMostSpecificCause().getMessage(), true);
+                }
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                reject(transaction, entry, e.getMessage(), true);
+            }
+        }
+    }
+
+    private void applyEntry(JournalEntry entry) {
+        journalAppliedEntryRepository.saveAndFlush(outcome(entry, JournalAppliedEntry.Status.APPLIED, null, true));
+        LocalDateTime acceptedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.createdAtMillis()), ZoneId.systemDefault());
+        switch (entry.type()) {
+            case DEPOSIT -> transactionService.depositMoney(entry.customerId(), entry.amount(), entry.description(),
+                    acceptedAt);
+            case WITHDRAWAL -> transactionService.withdrawMoney(entry.customerId(), entry.amount(), entry.description(),
+                    acceptedAt);
+            case TRANSFER -> transactionService.transferMoney(entry.customerId(), entry.toCustomerId(),
+                    entry.amount(), entry.description(), acceptedAt);
+        }
+    }
+
+    private void reject(TransactionTemplate transaction, JournalEntry entry, String reason, boolean keepKey) {
+        transaction.executeWithoutResult(status -> journalAppliedEntryRepository.save(
+                outcome(entry, JournalAppliedEntry.Status.REJECTED, reason, keepKey)));
+    }
+
+    private JournalAppliedEntry outcome(JournalEntry entry, JournalAppliedEntry.Status status, String message,
+                                        boolean keepKey) {
+        JournalAppliedEntry outcome = new JournalAppliedEntry();
+        outcome.setJournalId(journalId);
+        outcome.setSequence(entry.sequence());
+        outcome.setCustomerId(entry.customerId());
+        outcome.setIdempotencyKey(keepKey ? entry.idempotencyKey() : null);
+        outcome.setStatus(status);
+        outcome.setMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        outcome.setAppliedAt(LocalDateTime.now());
+        return outcome;
+    }
+}
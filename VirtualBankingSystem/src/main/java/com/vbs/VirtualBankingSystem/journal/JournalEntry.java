@@ -0,0 +1,79 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One acknowledged money movement. Amounts are carried as cents; {@code toCustomerId} is only set
+ * for transfers. {@code idempotencyKey} is optional and follows the description, so records written
+ * before it existed still decode.
+ */
+public record JournalEntry(long sequence, Type type, long customerId, Long toCustomerId,
+                           BigDecimal amount, String description, long createdAtMillis,
+                           String idempotencyKey) {
+
+    public static final int MAX_DESCRIPTION_LENGTH = 500;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    public enum Type {
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER
+    }
+
+    JournalEntry withSequence(long sequence) {
+        return new JournalEntry(sequence, type, customerId, toCustomerId, amount, description, createdAtMillis,
+                idempotencyKey);
+    }
+
+    int encodedSize() {
+        int size = 8 + 1 + 8 + 8 + 8 + 8 + 2 + descriptionBytes().length;
+        return idempotencyKey == null ? size : size + 2 + keyBytes().length;
+    }
+
+    void encode(ByteBuffer buffer) {
+        byte[] text = descriptionBytes();
+        buffer.putLong(sequence);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(customerId);
+        buffer.putLong(toCustomerId == null ? -1 : toCustomerId);
+        buffer.putLong(amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        buffer.putLong(createdAtMillis);
+        buffer.putShort((short) text.length);
+        buffer.put(text);
+        if (idempotencyKey != null) {
+            byte[] key = keyBytes();
+            buffer.putShort((short) key.length);
+            buffer.put(key);
+        }
+    }
+
+    static JournalEntry decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        Type type = Type.values()[buffer.get()];
+        long customerId = buffer.getLong();
+        long toCustomerId = buffer.getLong();
+        BigDecimal amount = BigDecimal.valueOf(buffer.getLong(), 2);
+        long createdAtMillis = buffer.getLong();
+        byte[] text = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(text);
+        String idempotencyKey = null;
+        if (buffer.hasRemaining()) {
+            byte[] key = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(key);
+            idempotencyKey = new String(key, StandardCharsets.UTF_8);
+        }
+        return new JournalEntry(sequence, type, customerId, toCustomerId < 0 ? null : toCustomerId, amount,
+                text.length == 0 ? null : new String(text, StandardCharsets.UTF_8), createdAtMillis, idempotencyKey);
+    }
+
+    private byte[] descriptionBytes() {
+        return description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] keyBytes() {
+        return idempotencyKey.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,9 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+/**
+ * Acknowledgement of a submitted money movement: the journal that holds it and its sequence there.
+ * An idempotent retry can be answered with an entry another node's journal accepted, so the journal
+ * id is part of the answer rather than assumed to be this node's.
+ */
+public record JournalReceipt(String journalId, long sequence, long acceptedAtMillis) {
+}
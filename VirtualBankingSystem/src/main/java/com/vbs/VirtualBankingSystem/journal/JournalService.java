@@ -0,0 +1,303 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import com.vbs.VirtualBankingSystem.model.JournalAppliedEntry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional durability mode for money movements. Deposits, withdrawals and transfers are appended to
+ * a local {@link WriteAheadJournal} and acknowledged once they are fsynced, without waiting for
+ * MySQL. A single applier thread then writes them to the database in order, in batches, through
+ * {@link JournalApplier}.
+ *
+ * On startup, entries still in the journal are queued ahead of new ones. The ones whose outcome is
+ * already in the database are skipped. An acknowledged entry can still be rejected when applied
+ * (e.g. insufficient balance); clients look up its outcome by sequence number.
+ *
+ * A submit that times out may still become durable and be applied. Clients that send an idempotency
+ * key can retry safely: a key that is still in the journal or already recorded in the database is
+ * answered with the entry it belongs to instead of appending another. Keys are scoped per customer;
+ * a key recorded by another node is answered with that node's journal id and sequence.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JournalService {
+
+    private final JournalApplier journalApplier;
+
+    @Value("${vbs.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${vbs.journal.directory:./data/journal}")
+    private String directory;
+
+    @Value("${vbs.journal.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${vbs.journal.group-commit-max-entries:256}")
+    private int groupCommitMaxEntries;
+
+    @Value("${vbs.journal.group-commit-max-delay-micros:500}")
+    private long groupCommitMaxDelayMicros;
+
+    @Value("${vbs.journal.apply-batch-size:200}")
+    private int applyBatchSize;
+
+    @Value("${vbs.journal.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${vbs.journal.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    private final BlockingQueue<JournalEntry> durable = new LinkedBlockingQueue<>();
+    // Idempotency keys of entries appended but not applied yet
+    private final ConcurrentHashMap<String, CompletableFuture<JournalEntry>> pendingKeys = new ConcurrentHashMap<>();
+    // Submitting customer of each durable entry not applied yet, by sequence
+    private final ConcurrentHashMap<Long, Long> pendingOwners = new ConcurrentHashMap<>();
+    private volatile WriteAheadJournal journal;
+    private volatile boolean running;
+    private Thread applier;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (journalApplier.getJournalId().isBlank()) {
+            // Outcomes are keyed by node id and sequence; two nodes sharing an id would skip each other's entries
+            throw new IllegalStateException("vbs.journal.node-id must be set to an id unique to this node "
+                    + "when the journal is enabled");
+        }
+        try {
+            WriteAheadJournal opened = new WriteAheadJournal(Path.of(directory), segmentBytes, groupCommitMaxEntries,
+                    groupCommitMaxDelayMicros, journalApplier.findMaxSequence() + 1, this::enqueue);
+            for (JournalEntry entry : opened.getRecoveredEntries()) {
+                if (entry.idempotencyKey() != null) {
+                    pendingKeys.put(entry.idempotencyKey(), CompletableFuture.completedFuture(entry));
+                }
+            }
+            enqueue(opened.getRecoveredEntries());
+            log.info("Journal {} opened in {}: {} entries to replay, next sequence {}", journalApplier.getJournalId(),
+                    directory, opened.getRecoveredEntries().size(), opened.getNextSequence());
+            journal = opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal in " + directory, e);
+        }
+
+        running = true;
+        applier = new Thread(this::applyLoop, "journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        if (applier != null) {
+            applier.interrupt();
+            applier.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getJournalId() {
+        return journalApplier.getJournalId();
+    }
+
+    /**
+     * Appends a money movement and acknowledges it once it is durable in the journal. With an idempotency
+     * key, a repeat of an earlier submit is answered with the earlier entry, possibly from another node.
+     */
+    public JournalReceipt submit(JournalEntry.Type type, Long customerId, Long toCustomerId,
+                               BigDecimal amount, String description, String idempotencyKey) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Amount must be greater than zero");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new RuntimeException("Amount cannot have more than two decimal places");
+        }
+        if (customerId == null || (type == JournalEntry.Type.TRANSFER && toCustomerId == null)) {
+            throw new RuntimeException("Customer id is required");
+        }
+        if (type == JournalEntry.Type.TRANSFER && customerId.equals(toCustomerId)) {
+            throw new RuntimeException("Cannot transfer money to the same account");
+        }
+        if (description != null && description.length() > JournalEntry.MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("Description cannot be longer than " + JournalEntry.MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank()
+                || idempotencyKey.length() > JournalEntry.MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new RuntimeException("Idempotency key must be 1 to " + JournalEntry.MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        WriteAheadJournal current = journal;
+        if (current == null) {
+            throw new JournalUnavailableException("Journal is not running");
+        }
+
+        String key = idempotencyKey == null ? null : customerId + ":" + idempotencyKey;
+        CompletableFuture<JournalEntry> appended;
+        if (key == null) {
+            checkBacklog();
+            appended = current.append(type, customerId, toCustomerId, amount, description, null);
+        } else {
+            CompletableFuture<JournalEntry> claim = new CompletableFuture<>();
+            CompletableFuture<JournalEntry> earlier = pendingKeys.putIfAbsent(key, claim);
+            if (earlier != null) {
+                appended = earlier;
+            } else {
+                try {
+                    Optional<JournalAppliedEntry> recorded = journalApplier.findByIdempotencyKey(key);
+                    if (recorded.isPresent()) {
+                        pendingKeys.remove(key, claim);
+                        long recordedAt = recorded.get().getAppliedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                        return new JournalReceipt(recorded.get().getJournalId(), recorded.get().getSequence(), recordedAt);
+                    }
+                    checkBacklog();
+                } catch (RuntimeException e) {
+                    pendingKeys.remove(key, claim);
+                    throw e;
+                }
+                current.append(type, customerId, toCustomerId, amount, description, key).whenComplete((entry, error) -> {
+                    if (error != null) {
+                        // Never durable, so a retry with the same key may append again
+                        pendingKeys.remove(key, claim);
+                        claim.completeExceptionally(error);
+                    } else {
+                        claim.complete(entry);
+                    }
+                });
+                appended = claim;
+            }
+        }
+
+        try {
+            JournalEntry entry = appended.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            return new JournalReceipt(getJournalId(), entry.sequence(), entry.createdAtMillis());
+        } catch (ExecutionException e) {
+            throw new JournalUnavailableException(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new JournalUnavailableException(key == null
+                    ? "Journal write did not complete in time and may still be applied; send an idempotency key to retry safely"
+                    : "Journal write did not complete in time; retry with the same idempotency key to get its sequence");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JournalUnavailableException("Interrupted while waiting for the journal");
+        }
+    }
+
+    /**
+     * APPLIED or REJECTED once the entry reached the database, PENDING while it is still queued,
+     * together with the customer who submitted it. Entries of other nodes' journals are only found
+     * once applied.
+     */
+    public Optional<EntryStatus> getStatus(String journalId, long sequence) {
+        if (journalId != null && !journalId.equals(getJournalId())) {
+            return journalApplier.findOutcome(journalId, sequence)
+                    .map(entry -> new EntryStatus(entry.getStatus().name(), entry.getCustomerId()));
+        }
+        return getStatus(sequence);
+    }
+
+    public Optional<EntryStatus> getStatus(long sequence) {
+        // Checked before the database: an entry leaves the map only after its outcome is committed
+        Long owner = pendingOwners.get(sequence);
+        if (owner != null) {
+            return Optional.of(new EntryStatus("PENDING", owner));
+        }
+        return journalApplier.findOutcome(sequence)
+                .map(entry -> new EntryStatus(entry.getStatus().name(), entry.getCustomerId()));
+    }
+
+    private void enqueue(List<JournalEntry> entries) {
+        for (JournalEntry entry : entries) {
+            pendingOwners.put(entry.sequence(), entry.customerId());
+        }
+        durable.addAll(entries);
+    }
+
+    private void checkBacklog() {
+        if (durable.size() >= maxPending) {
+            throw new JournalUnavailableException("Journal backlog is full, retry later");
+        }
+    }
+
+    private void applyLoop() {
+        List<JournalEntry> batch = new ArrayList<>(applyBatchSize);
+        while (running) {
+            try {
+                JournalEntry first = durable.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                durable.drainTo(batch, applyBatchSize - 1);
+                applyWithRetry(batch);
+                // Outcomes, keys included, are in the database now
+                for (JournalEntry entry : batch) {
+                    if (entry.idempotencyKey() != null) {
+                        pendingKeys.remove(entry.idempotencyKey());
+                    }
+                    pendingOwners.remove(entry.sequence());
+                }
+                journal.truncateThrough(batch.get(batch.size() - 1).sequence());
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Unapplied entries stay in the journal and are replayed on the next start
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to delete applied journal segments", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyWithRetry(List<JournalEntry> batch) throws InterruptedException {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                journalApplier.applyOnce(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Applying journal entries {}-{} failed, retrying in {} ms", batch.get(0).sequence(),
+                        batch.get(batch.size() - 1).sequence(), backoffMs, e);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, 5000);
+            }
+        }
+    }
+
+    /**
+     * @param customerId the submitting customer; null for outcomes recorded before it was kept
+     */
+    public record EntryStatus(String status, Long customerId) {
+    }
+}
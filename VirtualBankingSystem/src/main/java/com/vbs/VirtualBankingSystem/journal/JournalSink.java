@@ -0,0 +1,26 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where durable journal entries are applied. Recording an entry as applied must commit atomically
+ * with its effects, so that a batch replayed after a crash skips what already landed.
+ */
+public interface JournalSink {
+
+    Set<Long> findApplied(long fromSequence, long toSequence);
+
+    void apply(List<JournalEntry> entries);
+
+    /**
+     * Applies the entries of a batch that are not recorded as applied yet.
+     */
+    default void applyOnce(List<JournalEntry> batch) {
+        Set<Long> applied = findApplied(batch.get(0).sequence(), batch.get(batch.size() - 1).sequence());
+        List<JournalEntry> pending = batch.stream().filter(entry -> !applied.contains(entry.sequence())).toList();
+        if (!pending.isEmpty()) {
+            apply(pending);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+/**
+ * The journal cannot take more writes right now (not started, failed, or backlog full).
+ */
+public class JournalUnavailableException extends RuntimeException {
+
+    public JournalUnavailableException(String message) {
+        super(message);
+    }
+}
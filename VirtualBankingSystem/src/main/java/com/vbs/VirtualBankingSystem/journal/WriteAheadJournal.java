@@ -0,0 +1,320 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal split into segment files named after their first sequence number.
+ * Each record is {@code [length][crc32c][payload]}.
+ *
+ * A single writer thread takes whatever appends are queued (up to {@code maxBatch}, waiting at most
+ * {@code maxDelayMicros} for more), writes them, and fsyncs once for the whole group. Only then are
+ * their futures completed and the entries handed to {@code onDurable}. Segments roll over once they
+ * pass {@code segmentBytes}, and fully applied segments are deleted by {@link #truncateThrough}.
+ *
+ * On open, every segment is read back. A torn record at the end of the last segment is a write that
+ * never finished and was never acknowledged, so it is cut off.
+ */
+public class WriteAheadJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final Consumer<List<JournalEntry>> onDurable;
+
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final List<JournalEntry> recovered = new ArrayList<>();
+    // First sequence of each segment -> file; guarded by itself
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final Thread writer;
+
+    private FileChannel active;
+    private long activeFirstSequence;
+    private volatile long nextSequence;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Opens (and recovers) the journal in {@code directory}. New entries are numbered from at least
+     * {@code minNextSequence}, so sequences already recorded elsewhere are never reused.
+     */
+    public WriteAheadJournal(Path directory, long segmentBytes, int maxBatch, long maxDelayMicros,
+                             long minNextSequence, Consumer<List<JournalEntry>> onDurable) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.onDurable = onDurable;
+
+        Files.createDirectories(directory);
+        long expected = recover();
+        nextSequence = Math.max(expected, Math.max(1, minNextSequence));
+
+        if (segments.isEmpty() || nextSequence != expected) {
+            openSegment(nextSequence);
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            active = FileChannel.open(last.getValue(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            activeFirstSequence = last.getKey();
+        }
+
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Entries found on disk when the journal was opened, in sequence order.
+     */
+    public List<JournalEntry> getRecoveredEntries() {
+        return recovered;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Queues an entry; the future completes with its sequence number once it is on disk.
+     */
+    public CompletableFuture<JournalEntry> append(JournalEntry.Type type, long customerId, Long toCustomerId,
+                                                  BigDecimal amount, String description, String idempotencyKey) {
+        CompletableFuture<JournalEntry> future = new CompletableFuture<>();
+        if (closed || failure != null) {
+            future.completeExceptionally(new JournalUnavailableException("Journal is closed"));
+            return future;
+        }
+        queue.add(new PendingAppend(
+                new JournalEntry(0, type, customerId, toCustomerId, amount, description, System.currentTimeMillis(),
+                        idempotencyKey),
+                future));
+        return future;
+    }
+
+    /**
+     * Deletes closed segments whose entries all have sequence numbers up to {@code appliedSequence}.
+     */
+    public void truncateThrough(long appliedSequence) throws IOException {
+        synchronized (segments) {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                long lastInSegment = segments.higherKey(oldest.getKey()) - 1;
+                if (oldest.getKey() == activeFirstSequence || lastInSegment > appliedSequence) {
+                    return;
+                }
+                Files.deleteIfExists(oldest.getValue());
+                segments.remove(oldest.getKey());
+            }
+        }
+    }
+
+    int segmentCount() {
+        synchronized (segments) {
+            return segments.size();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (segments) {
+            active.close();
+        }
+    }
+
+    // Returns the sequence number following the last valid entry
+    private long recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+
+        long expected = 1;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            String name = file.getFileName().toString();
+            long first = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            expected = first;
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+                while (data.hasRemaining() && channel.read(data) >= 0) {
+                    // read the whole segment
+                }
+                data.flip();
+
+                int validEnd = 0;
+                CRC32C crc = new CRC32C();
+                while (data.remaining() >= HEADER_BYTES) {
+                    int length = data.getInt(validEnd);
+                    int checksum = data.getInt(validEnd + 4);
+                    if (length <= 0 || length > MAX_PAYLOAD_BYTES || data.remaining() < HEADER_BYTES + length) {
+                        break;
+                    }
+                    ByteBuffer payload = data.slice(validEnd + HEADER_BYTES, length);
+                    crc.reset();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    JournalEntry entry = JournalEntry.decode(payload);
+                    if (entry.sequence() != expected) {
+                        throw new IllegalStateException("Journal segment " + file + " skips from sequence "
+                                + expected + " to " + entry.sequence());
+                    }
+                    recovered.add(entry);
+                    expected++;
+                    validEnd += HEADER_BYTES + length;
+                    data.position(validEnd);
+                }
+
+                if (validEnd < channel.size()) {
+                    if (i < files.size() - 1) {
+                        throw new IllegalStateException("Journal segment " + file + " is corrupt at byte " + validEnd);
+                    }
+                    // Torn write from a crash; it was never fsynced, so never acknowledged
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+            }
+            segments.put(first, file);
+        }
+        return expected;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - batch.size());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    PendingAppend next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingAppend leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future().completeExceptionally(new JournalUnavailableException("Journal is closed"));
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        if (failure != null) {
+            batch.forEach(pending -> pending.future().completeExceptionally(
+                    new JournalUnavailableException("Journal write failed: " + failure.getMessage())));
+            return;
+        }
+
+        List<JournalEntry> entries = new ArrayList<>(batch.size());
+        int bytes = 0;
+        for (PendingAppend pending : batch) {
+            JournalEntry entry = pending.entry().withSequence(nextSequence + entries.size());
+            entries.add(entry);
+            bytes += HEADER_BYTES + entry.encodedSize();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        CRC32C crc = new CRC32C();
+        for (JournalEntry entry : entries) {
+            int start = buffer.position();
+            buffer.position(start + HEADER_BYTES);
+            entry.encode(buffer);
+            int length = buffer.position() - start - HEADER_BYTES;
+            crc.reset();
+            crc.update(buffer.slice(start + HEADER_BYTES, length));
+            buffer.putInt(start, length);
+            buffer.putInt(start + 4, (int) crc.getValue());
+        }
+        buffer.flip();
+
+        try {
+            synchronized (segments) {
+                while (buffer.hasRemaining()) {
+                    active.write(buffer);
+                }
+                active.force(false);
+                nextSequence += entries.size();
+                if (active.size() >= segmentBytes) {
+                    active.close();
+                    openSegment(nextSequence);
+                }
+            }
+        } catch (IOException e) {
+            // The file may now end in a partial record; stop writing and let recovery sort it out on restart
+            failure = e;
+            batch.forEach(pending -> pending.future().completeExceptionally(
+                    new JournalUnavailableException("Journal write failed: " + e.getMessage())));
+            return;
+        }
+
+        onDurable.accept(entries);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(entries.get(i));
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        active = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeFirstSequence = firstSequence;
+        segments.put(firstSequence, file);
+        // Make the new file's directory entry durable too
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform
+        }
+    }
+
+    private record PendingAppend(JournalEntry entry, CompletableFuture<JournalEntry> future) {
+    }
+}
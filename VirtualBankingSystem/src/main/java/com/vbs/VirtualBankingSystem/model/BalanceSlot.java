@@ -0,0 +1,31 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "balance_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_balance_slot", columnNames = {"customer_id", "slot_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "slot_index", nullable = false)
+    private int slotIndex;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+}
@@ -0,0 +1,39 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A customer's balance after every transaction with {@code timestamp <= asOf}.
+ */
+@Entity
+@Table(name = "balance_snapshots", uniqueConstraints = {
+        // Also serves the "latest snapshot at or before X" lookup
+        @UniqueConstraint(name = "uk_balance_snapshot", columnNames = {"customer_id", "as_of"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,7 @@ package com.vbs.VirtualBankingSystem.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,7 +26,9 @@ public class Customer {
     @Column(nullable = false, unique = true)
     private String username;
     
+    // PBKDF2 hash (see PasswordHasher); accepted on registration but never serialized back
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     @Column(nullable = false)
@@ -43,6 +46,12 @@ public class Customer {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
     
+    // 0 = plain balance; otherwise the balance is spread over this many balance_slots rows.
+    // Only StripedBalanceService changes it, so it is serialized but never bound from a request
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int balanceSlots = 0;
+    
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions;
 
@@ -110,6 +119,18 @@ public class Customer {
         this.balance = balance;
     }
 
+    public int getBalanceSlots() {
+        return balanceSlots;
+    }
+
+    public void setBalanceSlots(int balanceSlots) {
+        this.balanceSlots = balanceSlots;
+    }
+
+    public boolean isBalanceStriped() {
+        return balanceSlots > 0;
+    }
+
     public List<Transaction> getTransactions() {
         return transactions;
     }
@@ -0,0 +1,56 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a journal entry, written in the same database transaction as its effects.
+ */
+@Entity
+@Table(name = "journal_applied_entries", uniqueConstraints = {
+        // A replayed entry fails on insert instead of moving money twice
+        @UniqueConstraint(name = "uk_journal_entry", columnNames = {"journal_id", "sequence"}),
+        // A client retry with the same key is answered with the first entry instead of a second one
+        @UniqueConstraint(name = "uk_journal_idempotency_key", columnNames = {"idempotency_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalAppliedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "journal_id", nullable = false, length = 64)
+    private String journalId;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    // The customer who submitted the entry, for status lookups; null on rows recorded before it was kept
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "idempotency_key", length = 120)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private LocalDateTime appliedAt;
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+}
@@ -0,0 +1,86 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Entity
+@Table(name = "scheduled_transfers", indexes = {
+        @Index(name = "idx_scheduled_transfers_due", columnList = "active, next_run_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_customer_id", nullable = false)
+    private Long fromCustomerId;
+
+    @Column(name = "to_customer_id", nullable = false)
+    private Long toCustomerId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 200)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frequency frequency;
+
+    // Anchor of the recurrence: occurrence n is firstRunAt plus n periods
+    @Column(name = "first_run_at")
+    private LocalDateTime firstRunAt;
+
+    // The next occurrence still owed; together with the id it identifies an execution
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    private LocalDateTime endAt;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Frequency {
+        ONCE(null),
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * The first occurrence after {@code occurrence}. Steps are counted from {@code firstRunAt}
+         * rather than chained, so a schedule anchored on the 31st is clamped to the 30th or 28th in
+         * shorter months and returns to the 31st afterwards instead of drifting.
+         */
+        public LocalDateTime next(LocalDateTime firstRunAt, LocalDateTime occurrence) {
+            if (unit == null) {
+                return null;
+            }
+            long n = Math.max(0, unit.between(firstRunAt, occurrence));
+            LocalDateTime next;
+            do {
+                next = firstRunAt.plus(++n, unit);
+            } while (!next.isAfter(occurrence));
+            return next;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduled_transfer_executions", uniqueConstraints = {
+        // One row per occurrence: a second attempt at the same occurrence fails on insert
+        @UniqueConstraint(name = "uk_scheduled_transfer_occurrence",
+                columnNames = {"scheduled_transfer_id", "occurrence_at"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "scheduled_transfer_id", nullable = false)
+    private Long scheduledTransferId;
+
+    @Column(name = "occurrence_at", nullable = false)
+    private LocalDateTime occurrenceAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime executedAt;
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -11,7 +11,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Range scans for balance replay between snapshots
+        @Index(name = "idx_transactions_customer_time", columnList = "customer_id, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
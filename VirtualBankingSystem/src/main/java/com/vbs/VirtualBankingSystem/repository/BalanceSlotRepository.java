@@ -0,0 +1,42 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.BalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface BalanceSlotRepository extends JpaRepository<BalanceSlot, Long> {
+
+    @Modifying
+    @Query("UPDATE BalanceSlot s SET s.balance = s.balance + :amount WHERE s.customerId = :customerId AND s.slotIndex = :slotIndex")
+    int credit(@Param("customerId") Long customerId, @Param("slotIndex") int slotIndex, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE BalanceSlot s SET s.balance = s.balance - :amount " +
+           "WHERE s.customerId = :customerId AND s.slotIndex = :slotIndex AND s.balance >= :amount")
+    int debitIfSufficient(@Param("customerId") Long customerId, @Param("slotIndex") int slotIndex, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM BalanceSlot s WHERE s.customerId = :customerId")
+    BigDecimal sumBalance(@Param("customerId") Long customerId);
+
+    // Scalar on purpose: keeps slot entities out of the persistence context until they are locked
+    @Query("SELECT s.slotIndex FROM BalanceSlot s WHERE s.customerId = :customerId AND s.balance >= :amount ORDER BY s.balance DESC")
+    List<Integer> findSlotsCovering(@Param("customerId") Long customerId, @Param("amount") BigDecimal amount, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BalanceSlot s WHERE s.customerId = :customerId ORDER BY s.slotIndex")
+    List<BalanceSlot> lockSlots(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query("DELETE FROM BalanceSlot s WHERE s.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+}
@@ -0,0 +1,14 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByCustomerIdAndAsOfLessThanEqualOrderByAsOfDesc(Long customerId, LocalDateTime at);
+}
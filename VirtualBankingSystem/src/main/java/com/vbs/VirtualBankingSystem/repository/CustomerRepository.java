@@ -1,20 +1,41 @@
 package com.vbs.VirtualBankingSystem.repository;
 
 import com.vbs.VirtualBankingSystem.model.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
     
     Optional<Customer> findByUsername(String username);
     
     Optional<Customer> findByEmail(String email);
     
+    List<Customer> findByUsernameStartingWithOrderByUsername(String prefix, Pageable pageable);
+    
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.id = :id")
+    Optional<Customer> findByIdForUpdate(@Param("id") Long id);
+    
+    @Query("SELECT c.id FROM Customer c WHERE c.balanceSlots > 0")
+    List<Long> findStripedCustomerIds();
+    
+    @Modifying
+    @Query("UPDATE Customer c SET c.balance = :balance WHERE c.id = :id")
+    int updateBalance(@Param("id") Long id, @Param("balance") BigDecimal balance);
 }
 
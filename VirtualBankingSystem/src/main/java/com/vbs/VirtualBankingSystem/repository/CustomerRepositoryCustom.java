@@ -0,0 +1,14 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.Customer;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Re-reads an already loaded customer under a row lock ({@code SELECT ... FOR UPDATE}).
+     * A locking query would hand back the managed instance without re-reading it, so this
+     * refreshes instead. Being a repository method, lock timeouts and deadlocks surface as
+     * {@link org.springframework.dao.DataAccessException}s.
+     */
+    Customer lockForUpdate(Customer customer);
+}
@@ -0,0 +1,18 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Customer lockForUpdate(Customer customer) {
+        entityManager.refresh(customer, LockModeType.PESSIMISTIC_WRITE);
+        return customer;
+    }
+}
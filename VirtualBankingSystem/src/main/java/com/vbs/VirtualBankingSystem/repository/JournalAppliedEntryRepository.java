@@ -0,0 +1,27 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.JournalAppliedEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JournalAppliedEntryRepository extends JpaRepository<JournalAppliedEntry, Long> {
+
+    Optional<JournalAppliedEntry> findByJournalIdAndSequence(String journalId, Long sequence);
+
+    Optional<JournalAppliedEntry> findByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT e.sequence FROM JournalAppliedEntry e WHERE e.journalId = :journalId " +
+           "AND e.sequence BETWEEN :fromSequence AND :toSequence")
+    List<Long> findSequences(@Param("journalId") String journalId,
+                             @Param("fromSequence") Long fromSequence,
+                             @Param("toSequence") Long toSequence);
+
+    @Query("SELECT MAX(e.sequence) FROM JournalAppliedEntry e WHERE e.journalId = :journalId")
+    Long findMaxSequence(@Param("journalId") String journalId);
+}
@@ -0,0 +1,16 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.ScheduledTransferExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledTransferExecutionRepository extends JpaRepository<ScheduledTransferExecution, Long> {
+
+    List<ScheduledTransferExecution> findByScheduledTransferIdOrderByOccurrenceAtDesc(Long scheduledTransferId);
+
+    boolean existsByScheduledTransferIdAndOccurrenceAt(Long scheduledTransferId, LocalDateTime occurrenceAt);
+}
@@ -0,0 +1,16 @@
+package com.vbs.VirtualBankingSystem.repository;
+
+import com.vbs.VirtualBankingSystem.model.ScheduledTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    List<ScheduledTransfer> findByFromCustomerIdOrderByNextRunAtAsc(Long fromCustomerId);
+
+    List<ScheduledTransfer> findByActiveTrueAndNextRunAtBefore(LocalDateTime horizon);
+}
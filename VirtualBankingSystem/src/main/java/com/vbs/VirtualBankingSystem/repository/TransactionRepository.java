@@ -1,11 +1,14 @@
 package com.vbs.VirtualBankingSystem.repository;
 
 import com.vbs.VirtualBankingSystem.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,5 +18,31 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId ORDER BY t.timestamp DESC")
     List<Transaction> findTransactionsByCustomerIdOrderByTimestampDesc(@Param("customerId") Long customerId);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId " +
+           "AND t.timestamp > :after AND t.timestamp <= :upTo")
+    List<Transaction> findCustomerTransactionsBetween(@Param("customerId") Long customerId,
+                                                      @Param("after") LocalDateTime after,
+                                                      @Param("upTo") LocalDateTime upTo);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId AND t.timestamp <= :upTo")
+    List<Transaction> findCustomerTransactionsUpTo(@Param("customerId") Long customerId,
+                                                   @Param("upTo") LocalDateTime upTo);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId " +
+           "AND (:query IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
+           "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+           "AND (:fromTime IS NULL OR t.timestamp >= :fromTime) " +
+           "AND (:toTime IS NULL OR t.timestamp <= :toTime) " +
+           "ORDER BY t.timestamp DESC")
+    List<Transaction> searchCustomerTransactions(@Param("customerId") Long customerId,
+                                                 @Param("query") String query,
+                                                 @Param("type") Transaction.TransactionType type,
+                                                 @Param("minAmount") BigDecimal minAmount,
+                                                 @Param("maxAmount") BigDecimal maxAmount,
+                                                 @Param("fromTime") LocalDateTime fromTime,
+                                                 @Param("toTime") LocalDateTime toTime,
+                                                 Pageable pageable);
 }
-
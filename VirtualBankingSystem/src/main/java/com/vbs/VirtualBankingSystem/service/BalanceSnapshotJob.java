@@ -0,0 +1,143 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes balance snapshots at each period boundary (every {@code interval-hours} from midnight) and at
+ * each month start. A boundary is only snapshotted once it is {@code settle-minutes} old, so transactions
+ * stamped before it have committed; anything committing later corrects itself (see
+ * {@link BalanceSnapshotService}). Customers are split into id ranges, each snapshotted in one
+ * transaction on a worker pool.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceSnapshotJob {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Value("${vbs.snapshots.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vbs.snapshots.interval-hours:24}")
+    private int intervalHours;
+
+    @Value("${vbs.snapshots.settle-minutes:10}")
+    private long settleMinutes;
+
+    @Value("${vbs.snapshots.check-interval-minutes:15}")
+    private long checkIntervalMinutes;
+
+    @Value("${vbs.snapshots.threads:4}")
+    private int threads;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workerPool;
+    private LocalDateTime completedBoundary;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (intervalHours <= 0 || 24 % intervalHours != 0) {
+            throw new IllegalStateException("vbs.snapshots.interval-hours must divide 24");
+        }
+        workerPool = Executors.newFixedThreadPool(threads);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::runIfDue, 1, checkIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    private void runIfDue() {
+        try {
+            int retried = balanceSnapshotService.retryFailedInvalidations();
+            if (retried > 0) {
+                log.info("Retried snapshot invalidation for {} customers", retried);
+            }
+            LocalDateTime settled = LocalDateTime.now().minusMinutes(settleMinutes);
+            LocalDateTime boundary = periodStart(settled, intervalHours);
+            if (!boundary.equals(completedBoundary)) {
+                snapshotAll(monthStart(settled), boundary);
+                completedBoundary = boundary;
+            }
+        } catch (RuntimeException e) {
+            log.error("Balance snapshot run failed", e);
+        }
+    }
+
+    private void snapshotAll(LocalDateTime monthStart, LocalDateTime boundary) {
+        long started = System.nanoTime();
+        Optional<long[]> range = balanceSnapshotService.getCustomerIdRange();
+        if (range.isEmpty()) {
+            return;
+        }
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = range.get()[0]; from <= range.get()[1]; from += CHUNK_SIZE) {
+            long chunkFrom = from;
+            long chunkTo = from + CHUNK_SIZE - 1;
+            chunks.add(workerPool.submit(() -> {
+                try {
+                    written.addAndGet(balanceSnapshotService.snapshotRange(chunkFrom, chunkTo, monthStart, boundary));
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("Failed to snapshot balances for customers {} to {}", chunkFrom, chunkTo, e);
+                }
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Balance snapshot chunk failed", e);
+            }
+        }
+
+        log.info("Balance snapshots at {}: {} written, {} of {} chunks failed in {} ms", boundary, written.get(),
+                failed.get(), chunks.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    static LocalDateTime periodStart(LocalDateTime time, int intervalHours) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return day.plusHours((time.getHour() / intervalHours) * (long) intervalHours);
+    }
+
+    static LocalDateTime monthStart(LocalDateTime time) {
+        return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,286 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.BalanceAsOfDTO;
+import com.vbs.VirtualBankingSystem.model.BalanceSnapshot;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.repository.BalanceSnapshotRepository;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import com.vbs.VirtualBankingSystem.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Point-in-time balances from the transaction ledger. A balance as of X is the nearest snapshot at or
+ * before X plus the transactions after it up to X, so a read touches one snapshot and the transactions
+ * since then instead of the whole history. Each snapshot is built the same way from the one before it.
+ *
+ * A transaction can commit after a snapshot covering its timestamp was written (a lock held across a
+ * boundary, or a journal entry replayed after a restart). Such a commit deletes the customer's
+ * snapshots from its timestamp on, and the next job run writes them again. The check only runs for
+ * commits that cross a whole hour after their timestamp, which every snapshot boundary is. What
+ * remains is a snapshot computed just before a late commit and inserted just after its cleanup; a
+ * window of one chunk's database round trip, never a whole settle period.
+ *
+ * The delete runs in its own transaction after the commit. If it fails, the customer is remembered
+ * and {@link BalanceSnapshotJob} retries it on its next check.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BalanceSnapshotService {
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO balance_snapshots (customer_id, as_of, balance, created_at) VALUES (?, ?, ?, ?)";
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    // Earliest timestamp per customer whose snapshot delete failed, until it is retried
+    private final ConcurrentHashMap<Long, LocalDateTime> failedInvalidations = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public BalanceAsOfDTO getBalanceAsOf(Long customerId, LocalDateTime at) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new RuntimeException("Customer not found with id: " + customerId);
+        }
+        Optional<BalanceSnapshot> snapshot =
+                balanceSnapshotRepository.findFirstByCustomerIdAndAsOfLessThanEqualOrderByAsOfDesc(customerId, at);
+        List<Transaction> delta = transactionsAfter(customerId, snapshot, at);
+        BigDecimal start = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        return new BalanceAsOfDTO(customerId, at, replay(start, delta),
+                snapshot.map(BalanceSnapshot::getAsOf).orElse(null), delta.size());
+    }
+
+    /**
+     * Writes the month-start and period snapshots that are due for customers with ids in
+     * {@code [fromId, toId]}, in a fixed number of queries: the customers, their latest snapshots, and
+     * the transactions since. Snapshots another node already wrote are left as they are. Returns the
+     * number of rows written.
+     */
+    public int snapshotRange(long fromId, long toId, LocalDateTime monthStart, LocalDateTime boundary) {
+        List<Long> customerIds = jdbcTemplate.queryForList(
+                "SELECT id FROM customers WHERE id BETWEEN ? AND ? ORDER BY id", Long.class, fromId, toId);
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, BalanceSnapshot> latest = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT s.customer_id, s.as_of, s.balance FROM balance_snapshots s " +
+                "JOIN (SELECT customer_id, MAX(as_of) AS as_of FROM balance_snapshots " +
+                "      WHERE customer_id BETWEEN ? AND ? AND as_of <= ? GROUP BY customer_id) m " +
+                "ON s.customer_id = m.customer_id AND s.as_of = m.as_of",
+                rs -> {
+                    BalanceSnapshot snapshot = new BalanceSnapshot();
+                    snapshot.setCustomerId(rs.getLong(1));
+                    snapshot.setAsOf(rs.getTimestamp(2).toLocalDateTime());
+                    snapshot.setBalance(rs.getBigDecimal(3));
+                    latest.put(snapshot.getCustomerId(), snapshot);
+                },
+                fromId, toId, Timestamp.valueOf(boundary));
+
+        // Customers with a snapshot only need the ledger since the oldest of them; month-start
+        // snapshots keep that within about a month. Customers without one need their whole history.
+        Map<Long, List<Transaction>> ledgers = new HashMap<>();
+        LocalDateTime oldest = latest.values().stream().map(BalanceSnapshot::getAsOf)
+                .min(LocalDateTime::compareTo).orElse(null);
+        if (oldest != null) {
+            jdbcTemplate.query(
+                    "SELECT customer_id, type, amount, timestamp FROM transactions " +
+                    "WHERE customer_id BETWEEN ? AND ? AND timestamp > ? AND timestamp <= ? ORDER BY customer_id, timestamp, id",
+                    rs -> {
+                        addLedgerRow(ledgers, rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getTimestamp(4));
+                    },
+                    fromId, toId, Timestamp.valueOf(oldest), Timestamp.valueOf(boundary));
+        }
+        List<Long> unsnapshotted = customerIds.stream().filter(id -> !latest.containsKey(id)).toList();
+        if (!unsnapshotted.isEmpty()) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT customer_id, type, amount, timestamp FROM transactions " +
+                    "WHERE customer_id IN (:ids) AND timestamp <= :upTo ORDER BY customer_id, timestamp, id",
+                    Map.of("ids", unsnapshotted, "upTo", Timestamp.valueOf(boundary)),
+                    rs -> {
+                        addLedgerRow(ledgers, rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getTimestamp(4));
+                    });
+        }
+
+        List<BalanceSnapshot> due = new ArrayList<>();
+        for (Long customerId : customerIds) {
+            BalanceSnapshot previous = latest.get(customerId);
+            List<Transaction> delta = ledgers.getOrDefault(customerId, List.of()).stream()
+                    .filter(t -> previous == null || t.getTimestamp().isAfter(previous.getAsOf()))
+                    .toList();
+            due.addAll(dueSnapshots(customerId, previous, delta, monthStart, boundary));
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, due, due.size(), (ps, snapshot) -> {
+            ps.setLong(1, snapshot.getCustomerId());
+            ps.setTimestamp(2, Timestamp.valueOf(snapshot.getAsOf()));
+            ps.setBigDecimal(3, snapshot.getBalance());
+            ps.setTimestamp(4, now);
+        });
+        int written = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers that can't report per-row counts return SUCCESS_NO_INFO (-2)
+                written += count == 1 || count < 0 ? 1 : 0;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Snapshots due for one customer, given its latest snapshot at or before {@code boundary} (null if
+     * none) and its transactions after that snapshot up to {@code boundary}, oldest first. The month
+     * start is always written unless a later snapshot already covers it; the period boundary only when
+     * there were transactions since the snapshot before it.
+     */
+    static List<BalanceSnapshot> dueSnapshots(Long customerId, BalanceSnapshot latest, List<Transaction> delta,
+                                              LocalDateTime monthStart, LocalDateTime boundary) {
+        List<BalanceSnapshot> due = new ArrayList<>(2);
+        LocalDateTime previousAt = latest == null ? null : latest.getAsOf();
+        BigDecimal balance = latest == null ? BigDecimal.ZERO : latest.getBalance();
+        if (boundary.equals(previousAt)) {
+            return due;
+        }
+
+        int applied = 0;
+        if (previousAt == null || previousAt.isBefore(monthStart)) {
+            while (applied < delta.size() && !delta.get(applied).getTimestamp().isAfter(monthStart)) {
+                applied++;
+            }
+            balance = replay(balance, delta.subList(0, applied));
+            due.add(snapshot(customerId, monthStart, balance));
+            previousAt = monthStart;
+        }
+        if (applied < delta.size() && !boundary.equals(previousAt)) {
+            due.add(snapshot(customerId, boundary, replay(balance, delta.subList(applied, delta.size()))));
+        }
+        return due;
+    }
+
+    /**
+     * Drops the customer's snapshots from {@code timestamp} on once the surrounding transaction commits,
+     * if the commit may have come after a snapshot covering that time was written.
+     */
+    public void invalidateAfterCommit(Long customerId, LocalDateTime timestamp) {
+        Runnable invalidate = () -> {
+            if (timestamp.truncatedTo(ChronoUnit.HOURS).isBefore(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS))) {
+                invalidate(customerId, timestamp);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate.run();
+            }
+        });
+    }
+
+    /**
+     * Retries snapshot deletes that failed after their commit.
+     *
+     * @return how many customers were retried
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int retryFailedInvalidations() {
+        int retried = 0;
+        for (Map.Entry<Long, LocalDateTime> failed : failedInvalidations.entrySet()) {
+            if (failedInvalidations.remove(failed.getKey(), failed.getValue())) {
+                invalidate(failed.getKey(), failed.getValue());
+                retried++;
+            }
+        }
+        return retried;
+    }
+
+    // Runs after the caller's commit, so it needs a transaction of its own rather than joining that one
+    private void invalidate(Long customerId, LocalDateTime timestamp) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.update(
+                    "DELETE FROM balance_snapshots WHERE customer_id = ? AND as_of >= ?",
+                    customerId, Timestamp.valueOf(timestamp)));
+        } catch (RuntimeException e) {
+            failedInvalidations.merge(customerId, timestamp, (a, b) -> a.isBefore(b) ? a : b);
+            log.warn("Failed to drop balance snapshots of customer {} from {}; will retry", customerId, timestamp, e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<long[]> getCustomerIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM customers", rs -> {
+            rs.next();
+            long lo = rs.getLong(1);
+            return rs.wasNull() ? Optional.empty() : Optional.of(new long[]{lo, rs.getLong(2)});
+        });
+    }
+
+    static BigDecimal replay(BigDecimal start, List<Transaction> transactions) {
+        BigDecimal balance = start;
+        for (Transaction transaction : transactions) {
+            balance = transaction.getType() == Transaction.TransactionType.DEPOSIT
+                    ? balance.add(transaction.getAmount())
+                    : balance.subtract(transaction.getAmount());
+        }
+        return balance;
+    }
+
+    private static BalanceSnapshot snapshot(Long customerId, LocalDateTime asOf, BigDecimal balance) {
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setCustomerId(customerId);
+        snapshot.setAsOf(asOf);
+        snapshot.setBalance(balance);
+        return snapshot;
+    }
+
+    private static void addLedgerRow(Map<Long, List<Transaction>> ledgers, long customerId, String type,
+                                     BigDecimal amount, Timestamp timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setType(Transaction.TransactionType.valueOf(type));
+        transaction.setAmount(amount);
+        transaction.setTimestamp(timestamp.toLocalDateTime());
+        ledgers.computeIfAbsent(customerId, id -> new ArrayList<>()).add(transaction);
+    }
+
+    private List<Transaction> transactionsAfter(Long customerId, Optional<BalanceSnapshot> snapshot, LocalDateTime upTo) {
+        return snapshot.isPresent()
+                ? transactionRepository.findCustomerTransactionsBetween(customerId, snapshot.get().getAsOf(), upTo)
+                : transactionRepository.findCustomerTransactionsUpTo(customerId, upTo);
+    }
+}
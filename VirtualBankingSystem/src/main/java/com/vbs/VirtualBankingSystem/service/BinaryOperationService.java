@@ -0,0 +1,109 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.BinaryOperationDTO;
+import com.vbs.VirtualBankingSystem.dto.BinaryResultDTO;
+import com.vbs.VirtualBankingSystem.journal.JournalEntry;
+import com.vbs.VirtualBankingSystem.journal.JournalReceipt;
+import com.vbs.VirtualBankingSystem.journal.JournalService;
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Runs operations from binary clients. Each operation commits on its own, whether it arrives alone
+ * or in a sequence, and a failure is reported on that operation's result instead of failing the request.
+ * Money movements go through the write-ahead journal when it is enabled, as they do for JSON clients.
+ * Every operation is checked against the caller's access (for customers, the one in their session token).
+ */
+@Service
+@RequiredArgsConstructor
+public class BinaryOperationService {
+
+    private final TransactionService transactionService;
+    private final CustomerService customerService;
+    private final JournalService journalService;
+
+    /**
+     * @param access whether the caller may act for a given customer id
+     */
+    public BinaryResultDTO execute(BinaryOperationDTO operation, Predicate<Long> access) {
+        BinaryResultDTO result;
+        try {
+            if (operation.getOp() == null) {
+                throw new RuntimeException("Operation is required");
+            }
+            if (!access.test(operation.getCustomerId())) {
+                return error(operation, BinaryResultDTO.Status.FORBIDDEN, "Session token does not belong to this customer");
+            }
+            if (operation.getOp() != BinaryOperationDTO.Op.BALANCE && operation.getAmount() == null) {
+                throw new RuntimeException("Amount is required");
+            }
+            result = switch (operation.getOp()) {
+                case DEPOSIT -> journalService.isEnabled()
+                        ? journaled(JournalEntry.Type.DEPOSIT, operation)
+                        : completed(transactionService.depositMoney(operation.getCustomerId(),
+                                operation.getAmount(), operation.getDescription()));
+                case WITHDRAW -> journalService.isEnabled()
+                        ? journaled(JournalEntry.Type.WITHDRAWAL, operation)
+                        : completed(transactionService.withdrawMoney(operation.getCustomerId(),
+                                operation.getAmount(), operation.getDescription()));
+                case TRANSFER -> journalService.isEnabled()
+                        ? journaled(JournalEntry.Type.TRANSFER, operation)
+                        : transferred(transactionService.transferMoney(operation.getCustomerId(),
+                                operation.getToCustomerId(), operation.getAmount(), operation.getDescription()));
+                case BALANCE -> balance(operation.getCustomerId());
+            };
+        } catch (RuntimeException e) {
+            return error(operation, BinaryResultDTO.Status.ERROR, e.getMessage());
+        }
+        result.setRef(operation.getRef());
+        return result;
+    }
+
+    public static BinaryResultDTO error(BinaryOperationDTO operation, BinaryResultDTO.Status status, String message) {
+        BinaryResultDTO result = new BinaryResultDTO();
+        result.setRef(operation.getRef());
+        result.setStatus(status);
+        result.setError(message);
+        return result;
+    }
+
+    private BinaryResultDTO completed(Transaction transaction) {
+        BinaryResultDTO result = new BinaryResultDTO();
+        result.setStatus(BinaryResultDTO.Status.OK);
+        result.setTransactionId(transaction.getId());
+        result.setBalance(transaction.getBalanceAfterTransaction());
+        result.setTimestamp(transaction.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return result;
+    }
+
+    private BinaryResultDTO transferred(List<Transaction> transactions) {
+        BinaryResultDTO result = completed(transactions.get(0));
+        result.setCounterTransactionId(transactions.get(1).getId());
+        return result;
+    }
+
+    private BinaryResultDTO journaled(JournalEntry.Type type, BinaryOperationDTO operation) {
+        JournalReceipt receipt = journalService.submit(type, operation.getCustomerId(), operation.getToCustomerId(),
+                operation.getAmount(), operation.getDescription(), operation.getIdempotencyKey());
+        BinaryResultDTO result = new BinaryResultDTO();
+        result.setStatus(BinaryResultDTO.Status.ACCEPTED);
+        result.setJournalId(receipt.journalId());
+        result.setSequence(receipt.sequence());
+        result.setTimestamp(receipt.acceptedAtMillis());
+        return result;
+    }
+
+    private BinaryResultDTO balance(Long customerId) {
+        Customer customer = customerService.getCustomerById(customerId);
+        BinaryResultDTO result = new BinaryResultDTO();
+        result.setStatus(BinaryResultDTO.Status.OK);
+        result.setBalance(customerService.getCustomerBalance(customer));
+        return result;
+    }
+}
@@ -0,0 +1,202 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.CustomerSummaryDTO;
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory username directory used for recipient lookup and autocomplete.
+ * Customers are kept in sorted parallel arrays; registrations land in a small
+ * skip-list delta that is folded into a fresh array snapshot once it grows.
+ * Readers grab the current {@link State} once and never lock.
+ *
+ * The directory only sees registrations made on this node and is empty until the startup load
+ * finishes, so a lookup that finds nothing falls back to the customers table and remembers what
+ * it found.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerDirectory {
+
+    private static final int MERGE_THRESHOLD = 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerRepository customerRepository;
+
+    private volatile State state = new State(Snapshot.EMPTY, new ConcurrentSkipListMap<>());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<Entry> entries = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, username, first_name, last_name FROM customers", rs -> {
+            entries.add(new Entry(rs.getLong(1), rs.getString(2),
+                    rs.getString(3) + " " + rs.getString(4)));
+        });
+        state = new State(Snapshot.of(entries), new ConcurrentSkipListMap<>());
+    }
+
+    public synchronized void add(Long id, String username, String displayName) {
+        State current = state;
+        current.delta.put(key(username), new Entry(id, username, displayName));
+        if (current.delta.size() >= MERGE_THRESHOLD) {
+            List<Entry> entries = new ArrayList<>(current.base.size() + current.delta.size());
+            for (int i = 0; i < current.base.size(); i++) {
+                entries.add(current.base.entry(i));
+            }
+            entries.addAll(current.delta.values());
+            state = new State(Snapshot.of(entries), new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public Optional<CustomerSummaryDTO> find(String username) {
+        State current = state;
+        String key = key(username);
+        Entry entry = current.delta.get(key);
+        if (entry != null) {
+            return Optional.of(entry.toDto());
+        }
+        int index = current.base.indexOf(key);
+        if (index >= 0) {
+            return Optional.of(current.base.entry(index).toDto());
+        }
+        return customerRepository.findByUsername(username).map(this::remember);
+    }
+
+    public List<CustomerSummaryDTO> searchByPrefix(String prefix, int limit) {
+        List<CustomerSummaryDTO> results = searchLoaded(prefix, limit);
+        if (!results.isEmpty()) {
+            return results;
+        }
+        return customerRepository.findByUsernameStartingWithOrderByUsername(prefix, PageRequest.of(0, limit))
+                .stream()
+                .map(this::remember)
+                .toList();
+    }
+
+    private List<CustomerSummaryDTO> searchLoaded(String prefix, int limit) {
+        State current = state;
+        String keyPrefix = key(prefix);
+        List<CustomerSummaryDTO> results = new ArrayList<>(Math.min(limit, 64));
+
+        // Merge the two sorted sources, stopping as soon as the limit is reached
+        int i = current.base.lowerBound(keyPrefix);
+        Iterator<Map.Entry<String, Entry>> pending = current.delta.tailMap(keyPrefix).entrySet().iterator();
+        Map.Entry<String, Entry> next = pending.hasNext() ? pending.next() : null;
+        while (results.size() < limit) {
+            boolean baseMatches = i < current.base.size() && current.base.keys[i].startsWith(keyPrefix);
+            boolean deltaMatches = next != null && next.getKey().startsWith(keyPrefix);
+            if (!baseMatches && !deltaMatches) {
+                break;
+            }
+            if (deltaMatches && (!baseMatches || next.getKey().compareTo(current.base.keys[i]) <= 0)) {
+                if (baseMatches && next.getKey().equals(current.base.keys[i])) {
+                    i++;
+                }
+                results.add(next.getValue().toDto());
+                next = pending.hasNext() ? pending.next() : null;
+            } else {
+                results.add(current.base.entry(i).toDto());
+                i++;
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        State current = state;
+        return current.base.size() + current.delta.size();
+    }
+
+    int pendingSize() {
+        return state.delta.size();
+    }
+
+    private CustomerSummaryDTO remember(Customer customer) {
+        String displayName = customer.getFirstName() + " " + customer.getLastName();
+        add(customer.getId(), customer.getUsername(), displayName);
+        return new CustomerSummaryDTO(customer.getId(), customer.getUsername(), displayName);
+    }
+
+    private static String key(String username) {
+        // Usernames are unique under MySQL's case-insensitive collation, so match the same way
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private record State(Snapshot base, ConcurrentSkipListMap<String, Entry> delta) {
+    }
+
+    private record Entry(long id, String username, String displayName) {
+        CustomerSummaryDTO toDto() {
+            return new CustomerSummaryDTO(id, username, displayName);
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new long[0], new String[0]);
+
+        private final String[] keys;
+        private final String[] usernames;
+        private final long[] ids;
+        private final String[] displayNames;
+
+        private Snapshot(String[] keys, String[] usernames, long[] ids, String[] displayNames) {
+            this.keys = keys;
+            this.usernames = usernames;
+            this.ids = ids;
+            this.displayNames = displayNames;
+        }
+
+        static Snapshot of(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparing(e -> key(e.username())));
+            String[] keys = new String[sorted.length];
+            String[] usernames = new String[sorted.length];
+            long[] ids = new long[sorted.length];
+            String[] displayNames = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                String username = sorted[i].username();
+                String key = key(username);
+                keys[i] = key;
+                // Share the key string when the username is already lower case
+                usernames[i] = key.equals(username) ? key : username;
+                ids[i] = sorted[i].id();
+                displayNames[i] = sorted[i].displayName();
+            }
+            return new Snapshot(keys, usernames, ids, displayNames);
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        Entry entry(int index) {
+            return new Entry(ids[index], usernames[index], displayNames[index]);
+        }
+
+        int indexOf(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? -1 : index;
+        }
+
+        int lowerBound(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbs.VirtualBankingSystem.dto.ImportReportDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk customer onboarding. The upload is read line by line and flushed in
+ * batches, so only the current batch and the in-file duplicate sets are held
+ * in memory. Not transactional as a whole: each batch commits on its own, together
+ * with the opening-balance ledger rows of the customers it created.
+ *
+ * Passwords already in {@link PasswordHasher}'s format are stored as given. Plaintext ones are
+ * hashed on a small dedicated pool shared by all imports, so a large upload can't take every core
+ * (or the common pool) away from login and request handling.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerImportService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 10000;
+    private static final int BALANCE_PRECISION = 15;
+    private static final int BALANCE_SCALE = 2;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO customers (username, password, first_name, last_name, email, phone_number, balance, balance_slots) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Opening balances go on the ledger so point-in-time balances replay to them
+    private static final String OPENING_BALANCE_SQL =
+            "INSERT INTO transactions (type, amount, balance_after_transaction, description, timestamp, customer_id) " +
+            "SELECT 'DEPOSIT', ?, ?, 'Opening balance', ?, id FROM customers WHERE username = ?";
+
+    private static final String[] REQUIRED_FIELDS =
+            {"username", "password", "firstName", "lastName", "email", "phoneNumber"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CustomerDirectory customerDirectory;
+    private final PasswordHasher passwordHasher;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionSearchService transactionSearchService;
+
+    @Value("${vbs.import.hash-threads:2}")
+    private int hashThreads;
+
+    private ExecutorService hashPool;
+
+    @PostConstruct
+    void startHashPool() {
+        AtomicInteger count = new AtomicInteger();
+        hashPool = Executors.newFixedThreadPool(Math.max(1, hashThreads), runnable -> {
+            Thread thread = new Thread(runnable, "import-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopHashPool() {
+        hashPool.shutdownNow();
+    }
+
+    public ImportReportDTO importCsv(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new RuntimeException("CSV upload is empty");
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> header = parseCsvLine(headerLine);
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            for (String field : REQUIRED_FIELDS) {
+                if (!columns.containsKey(field)) {
+                    throw new RuntimeException("CSV header is missing column: " + field);
+                }
+            }
+
+            ImportRun run = new ImportRun();
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.countLine();
+                try {
+                    List<String> values = parseCsvLine(line);
+                    ImportRow row = new ImportRow(lineNumber);
+                    row.username = csvValue(values, columns, "username");
+                    row.password = csvValue(values, columns, "password");
+                    row.firstName = csvValue(values, columns, "firstName");
+                    row.lastName = csvValue(values, columns, "lastName");
+                    row.email = csvValue(values, columns, "email");
+                    row.phoneNumber = csvValue(values, columns, "phoneNumber");
+                    row.balance = parseBalance(csvValue(values, columns, "balance"));
+                    run.accept(row);
+                } catch (RuntimeException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+            }
+            return run.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV upload", e);
+        }
+    }
+
+    public ImportReportDTO importNdjson(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ImportRun run = new ImportRun();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.countLine();
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    ImportRow row = new ImportRow(lineNumber);
+                    row.username = jsonValue(node, "username");
+                    row.password = jsonValue(node, "password");
+                    row.firstName = jsonValue(node, "firstName");
+                    row.lastName = jsonValue(node, "lastName");
+                    row.email = jsonValue(node, "email");
+                    row.phoneNumber = jsonValue(node, "phoneNumber");
+                    JsonNode balance = node.get("balance");
+                    if (balance != null && !balance.isNull() && !balance.isNumber() && !balance.isTextual()) {
+                        throw new RuntimeException("Invalid opening balance: " + balance);
+                    }
+                    // Numbers and numeric strings alike; decimalValue() would turn a string into 0
+                    row.balance = parseBalance(balance == null || balance.isNull() ? null : balance.asText().trim());
+                    run.accept(row);
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (RuntimeException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+            }
+            return run.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read NDJSON upload", e);
+        }
+    }
+
+    // Must fit the DECIMAL(15,2) balance column exactly; nothing is rounded away
+    static BigDecimal parseBalance(String text) {
+        if (text == null || text.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal balance;
+        try {
+            balance = new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid opening balance: " + text);
+        }
+        if (balance.stripTrailingZeros().scale() > BALANCE_SCALE) {
+            throw new RuntimeException("Opening balance cannot have more than " + BALANCE_SCALE + " decimal places");
+        }
+        balance = balance.setScale(BALANCE_SCALE);
+        if (balance.precision() > BALANCE_PRECISION) {
+            throw new RuntimeException("Opening balance is too large");
+        }
+        return balance;
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String jsonValue(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    // Minimal RFC 4180 splitting: quoted fields may contain commas and "" escapes
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static class ImportRow {
+        private final long lineNumber;
+        private String username;
+        private String password;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String phoneNumber;
+        private BigDecimal balance;
+
+        private ImportRow(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    // State for a single upload: in-file duplicate sets, the pending batch and the report
+    private class ImportRun {
+        // MySQL's default collation compares case-insensitively, so duplicates are keyed in lower case
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        private final ImportReportDTO report = new ImportReportDTO();
+
+        void countLine() {
+            report.setTotalLines(report.getTotalLines() + 1);
+        }
+
+        void accept(ImportRow row) {
+            for (String field : REQUIRED_FIELDS) {
+                if (fieldValue(row, field) == null) {
+                    reject(row.lineNumber, "Missing required field: " + field);
+                    return;
+                }
+            }
+            if (row.balance.signum() < 0) {
+                reject(row.lineNumber, "Opening balance cannot be negative");
+                return;
+            }
+
+            String usernameKey = row.username.toLowerCase(Locale.ROOT);
+            String emailKey = row.email.toLowerCase(Locale.ROOT);
+            if (!seenUsernames.add(usernameKey)) {
+                reject(row.lineNumber, "Duplicate username in file: " + row.username);
+                return;
+            }
+            if (!seenEmails.add(emailKey)) {
+                reject(row.lineNumber, "Duplicate email in file: " + row.email);
+                return;
+            }
+
+            batch.add(row);
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, String error) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ImportReportDTO.LineErrorDTO(lineNumber, error));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            if (report.getImported() > 0) {
+                // Batch inserts don't hand back generated ids, so rebuild the directory from the table
+                customerDirectory.reload();
+            }
+            return report;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Set<String> existingUsernames = existing("username", batch.stream().map(r -> r.username).toList());
+            Set<String> existingEmails = existing("email", batch.stream().map(r -> r.email).toList());
+
+            List<ImportRow> insertable = new ArrayList<>(batch.size());
+            for (ImportRow row : batch) {
+                if (existingUsernames.contains(row.username.toLowerCase(Locale.ROOT))) {
+                    reject(row.lineNumber, "Username already exists: " + row.username);
+                } else if (existingEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                    reject(row.lineNumber, "Email already exists: " + row.email);
+                } else {
+                    insertable.add(row);
+                }
+            }
+            batch.clear();
+
+            if (insertable.isEmpty()) {
+                return;
+            }
+            hashPasswords(insertable);
+            TransactionTemplate chunk = new TransactionTemplate(transactionManager);
+            try {
+                List<ImportRow> rows = insertable;
+                chunk.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                        ps.setString(1, row.username);
+                        ps.setString(2, row.password);
+                        ps.setString(3, row.firstName);
+                        ps.setString(4, row.lastName);
+                        ps.setString(5, row.email);
+                        ps.setString(6, row.phoneNumber);
+                        ps.setBigDecimal(7, row.balance);
+                    });
+                    recordOpeningBalances(rows);
+                });
+                report.setImported(report.getImported() + insertable.size());
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent registration won the race for one of the keys. The whole chunk was
+                // rolled back, so retry row by row (each with its opening balance) to isolate it
+                for (ImportRow row : insertable) {
+                    try {
+                        chunk.executeWithoutResult(status -> {
+                            jdbcTemplate.update(INSERT_SQL, row.username, row.password, row.firstName,
+                                    row.lastName, row.email, row.phoneNumber, row.balance);
+                            recordOpeningBalances(List.of(row));
+                        });
+                        report.setImported(report.getImported() + 1);
+                    } catch (DuplicateKeyException rowError) {
+                        reject(row.lineNumber, "Username or email already exists: " + row.username);
+                    } catch (DataIntegrityViolationException rowError) {
+                        // NOT NULL, length and similar violations are the row's fault, not a duplicate
+                        reject(row.lineNumber, "Rejected by the database: " + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        // Hashing dominates the cost of a batch
+        private void hashPasswords(List<ImportRow> rows) {
+            CompletableFuture.allOf(rows.stream()
+                    .filter(row -> !PasswordHasher.isWellFormed(row.password))
+                    .map(row -> CompletableFuture.runAsync(() -> row.password = passwordHasher.hash(row.password), hashPool))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        }
+
+        private void recordOpeningBalances(List<ImportRow> inserted) {
+            List<ImportRow> funded = inserted.stream().filter(row -> row.balance.signum() > 0).toList();
+            if (funded.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(OPENING_BALANCE_SQL, funded, funded.size(), (ps, row) -> {
+                ps.setBigDecimal(1, row.balance);
+                ps.setBigDecimal(2, row.balance);
+                ps.setTimestamp(3, now);
+                ps.setString(4, row.username);
+            });
+            transactionSearchService.indexCustomersAfterCommit(funded.stream().map(row -> row.username).toList());
+        }
+
+        private Set<String> existing(String column, List<String> values) {
+            Set<String> found = new HashSet<>();
+            namedParameterJdbcTemplate.query(
+                    "SELECT " + column + " FROM customers WHERE " + column + " IN (:values)",
+                    Map.of("values", values),
+                    rs -> {
+                        found.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                    });
+            return found;
+        }
+
+        private String fieldValue(ImportRow row, String field) {
+            return switch (field) {
+                case "username" -> row.username;
+                case "password" -> row.password;
+                case "firstName" -> row.firstName;
+                case "lastName" -> row.lastName;
+                case "email" -> row.email;
+                case "phoneNumber" -> row.phoneNumber;
+                default -> null;
+            };
+        }
+    }
+}
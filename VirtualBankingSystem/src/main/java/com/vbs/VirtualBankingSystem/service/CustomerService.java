@@ -1,11 +1,19 @@
 package com.vbs.VirtualBankingSystem.service;
 
 import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.model.Transaction;
 import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import com.vbs.VirtualBankingSystem.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Optional;
 
 @Service
@@ -14,6 +22,11 @@ import java.util.Optional;
 public class CustomerService {
     
     private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final CustomerDirectory customerDirectory;
+    private final StripedBalanceService stripedBalanceService;
+    private final PasswordHasher passwordHasher;
+    private final TransactionSearchService transactionSearchService;
     
     public Customer registerCustomer(Customer customer) {
         // Check if username already exists
@@ -26,13 +39,43 @@ public class CustomerService {
             throw new RuntimeException("Email already exists: " + customer.getEmail());
         }
         
-        return customerRepository.save(customer);
+        if (customer.getPassword() == null || customer.getPassword().isEmpty()) {
+            throw new RuntimeException("Password is required");
+        }
+        customer.setPassword(passwordHasher.hash(customer.getPassword()));
+        Customer saved = customerRepository.save(customer);
+
+        // Opening balances go on the ledger so point-in-time balances replay to them
+        if (saved.getBalance() != null && saved.getBalance().signum() > 0) {
+            Transaction opening = new Transaction();
+            opening.setType(Transaction.TransactionType.DEPOSIT);
+            opening.setAmount(saved.getBalance());
+            opening.setBalanceAfterTransaction(saved.getBalance());
+            opening.setDescription("Opening balance");
+            opening.setTimestamp(LocalDateTime.now());
+            opening.setCustomer(saved);
+            transactionSearchService.indexAfterCommit(transactionRepository.save(opening));
+        }
+
+        // Only publish to the directory once the row is visible to other transactions
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                customerDirectory.add(saved.getId(), saved.getUsername(),
+                        saved.getFirstName() + " " + saved.getLastName());
+            }
+        });
+        return saved;
     }
     
     public Customer loginCustomer(String username, String password) {
         Optional<Customer> customer = customerRepository.findByUsername(username);
         
-        if (customer.isPresent() && customer.get().getPassword().equals(password)) {
+        if (customer.isPresent() && passwordHasher.matches(password, customer.get().getPassword())) {
+            if (passwordHasher.needsRehash(customer.get().getPassword())) {
+                // Upgrades plaintext rows from before hashing, and hashes made with fewer iterations
+                customer.get().setPassword(passwordHasher.hash(password));
+            }
             return customer.get();
         } else {
             throw new RuntimeException("Invalid username or password");
@@ -49,6 +92,29 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("Customer not found with username: " + username));
     }
     
+    public BigDecimal getCustomerBalance(Customer customer) {
+        // Striped accounts keep only the last compacted total on the customer row
+        return customer.isBalanceStriped()
+                ? stripedBalanceService.getBalance(customer.getId())
+                : customer.getBalance();
+    }
+    
+    /**
+     * Re-reads plain-balance customers under their row locks, so a plain balance update can't
+     * interleave with striping being enabled or disabled (both take the same lock). Rows are
+     * locked in ascending id order, so transfers in opposite directions can't deadlock. Striped
+     * accounts are not locked here; their slots are locked as they are updated.
+     */
+    public void lockForBalanceUpdate(Customer... customers) {
+        Customer[] ordered = customers.clone();
+        Arrays.sort(ordered, Comparator.comparing(Customer::getId));
+        for (Customer customer : ordered) {
+            if (!customer.isBalanceStriped()) {
+                customerRepository.lockForUpdate(customer);
+            }
+        }
+    }
+    
     public Customer updateCustomerBalance(Customer customer) {
         return customerRepository.save(customer);
     }
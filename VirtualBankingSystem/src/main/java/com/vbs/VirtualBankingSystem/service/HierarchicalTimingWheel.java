@@ -0,0 +1,86 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: each level has {@code wheelSize} buckets of
+ * {@code tickMs}, and anything beyond a level's span goes to a coarser overflow
+ * level created on demand. Adding is O(1); as time advances, entries cascade down
+ * from coarser levels until they reach the finest one and expire.
+ * Not thread-safe; callers synchronize.
+ */
+class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private HierarchicalTimingWheel<T> overflow;
+
+    HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Returns false when the entry is already due, in which case the caller should run it directly.
+     */
+    boolean add(long expirationMs, T task) {
+        if (expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (expirationMs < currentTime + interval) {
+            buckets.get((int) ((expirationMs / tickMs) % wheelSize)).add(new Entry<>(expirationMs, task));
+        } else {
+            if (overflow == null) {
+                overflow = new HierarchicalTimingWheel<>(interval, wheelSize, currentTime);
+            }
+            overflow.add(expirationMs, task);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMs}, appending every task that expired on the way.
+     */
+    void advance(long nowMs, List<T> expired) {
+        List<Entry<T>> released = new ArrayList<>();
+        advanceBuckets(nowMs, released);
+        for (Entry<T> entry : released) {
+            expired.add(entry.task);
+        }
+    }
+
+    // Releases the entries of each bucket the clock passes; on the finest level those have expired,
+    // on coarser levels they are handed down to be re-added with finer granularity.
+    private void advanceBuckets(long nowMs, List<Entry<T>> released) {
+        while (nowMs >= currentTime + tickMs) {
+            currentTime += tickMs;
+
+            if (overflow != null) {
+                List<Entry<T>> cascaded = new ArrayList<>();
+                overflow.advanceBuckets(currentTime, cascaded);
+                for (Entry<T> entry : cascaded) {
+                    if (!add(entry.expirationMs, entry.task)) {
+                        released.add(entry);
+                    }
+                }
+            }
+
+            List<Entry<T>> bucket = buckets.get((int) ((currentTime / tickMs) % wheelSize));
+            released.addAll(bucket);
+            bucket.clear();
+        }
+    }
+
+    private record Entry<T>(long expirationMs, T task) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PBKDF2 password hashes, stored as {@code pbkdf2$<iterations>$<salt>$<hash>}.
+ *
+ * Successful verifications are remembered in a bounded LRU keyed by the stored hash, holding a keyed
+ * digest of the password that matched it, so a repeated login skips the slow derivation. The digest
+ * key is random per process and never leaves memory. A password change produces a new stored hash,
+ * which never matches an old entry.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    private final byte[] cacheKey = new byte[32];
+    private final Map<String, byte[]> verified;
+
+    public PasswordHasher(AuthProperties properties) {
+        this.iterations = properties.getHashIterations();
+        random.nextBytes(cacheKey);
+        int cacheSize = properties.getCredentialCacheSize();
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    public boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        byte[] digest = cacheDigest(password);
+        synchronized (verified) {
+            byte[] cached = verified.get(stored);
+            if (cached != null && MessageDigest.isEqual(cached, digest)) {
+                return true;
+            }
+        }
+
+        boolean matches;
+        if (isHashed(stored)) {
+            String[] parts = stored.split("\\$");
+            if (parts.length != 4) {
+                return false;
+            }
+            try {
+                Base64.Decoder decoder = Base64.getDecoder();
+                byte[] expected = decoder.decode(parts[3]);
+                matches = MessageDigest.isEqual(expected, derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+            } catch (IllegalArgumentException e) {
+                // Corrupt stored hash (bad base64 or iteration count); it matches nothing
+                return false;
+            }
+        } else {
+            // Rows written before hashing was introduced; callers rehash them on a successful login
+            matches = MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (matches) {
+            synchronized (verified) {
+                verified.put(stored, digest);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * True when the stored value is plaintext or was hashed with fewer iterations than configured.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    /**
+     * True for a complete hash in this class's format, e.g. one exported from another system. The
+     * iteration count is capped so a supplied hash can't make verifying it arbitrarily slow.
+     */
+    public static boolean isWellFormed(String stored) {
+        if (stored == null || !isHashed(stored)) {
+            return false;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            return iterations > 0 && iterations <= MAX_ITERATIONS
+                    && decoder.decode(parts[2]).length > 0
+                    && decoder.decode(parts[3]).length == HASH_BITS / 8;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing is unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private byte[] cacheDigest(String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKey, "HmacSHA256"));
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing is unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.model.ScheduledTransfer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires scheduled transfer occurrences from an in-process timing wheel instead of a
+ * single cron that selects everything due at once. Occurrences within the loading horizon
+ * are placed on the wheel with a per-schedule offset inside the spread window, and due
+ * ones are handed to a small worker pool with at most {@code batchSize} in flight.
+ * Anything missed while the node was down is picked up by the first load and spread the same way.
+ * Rejected transfers (insufficient balance, closed accounts) are recorded as FAILED occurrences;
+ * database and transaction infrastructure errors put the occurrence back on the wheel to retry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduledTransferScheduler {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    @Value("${vbs.scheduled-transfers.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vbs.scheduled-transfers.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${vbs.scheduled-transfers.wheel-size:60}")
+    private int wheelSize;
+
+    @Value("${vbs.scheduled-transfers.horizon-minutes:60}")
+    private long horizonMinutes;
+
+    @Value("${vbs.scheduled-transfers.spread-window-seconds:300}")
+    private long spreadWindowSeconds;
+
+    @Value("${vbs.scheduled-transfers.batch-size:50}")
+    private int batchSize;
+
+    @Value("${vbs.scheduled-transfers.workers:4}")
+    private int workers;
+
+    @Value("${vbs.scheduled-transfers.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    private final Set<Occurrence> queued = ConcurrentHashMap.newKeySet();
+    private final Queue<Occurrence> ready = new ArrayDeque<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private HierarchicalTimingWheel<Occurrence> wheel;
+    private ScheduledExecutorService ticker;
+    private ExecutorService workerPool;
+    private volatile LocalDateTime loadedUntil = LocalDateTime.MIN;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        workerPool = Executors.newFixedThreadPool(workers);
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleWithFixedDelay(this::loadUpcoming, 0, Math.max(1, horizonMinutes / 2), TimeUnit.MINUTES);
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+    }
+
+    public void enqueue(ScheduledTransfer scheduledTransfer) {
+        if (wheel == null || !scheduledTransfer.getNextRunAt().isBefore(loadedUntil)) {
+            // Outside the loaded horizon; the next load picks it up
+            return;
+        }
+        Occurrence occurrence = new Occurrence(scheduledTransfer.getId(), scheduledTransfer.getNextRunAt());
+        if (!queued.add(occurrence)) {
+            return;
+        }
+
+        long dueMs = occurrence.occurrenceAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        schedule(occurrence, Math.max(dueMs, System.currentTimeMillis()) + spreadOffsetMs(occurrence.scheduledTransferId()));
+    }
+
+    private synchronized void schedule(Occurrence occurrence, long fireAtMs) {
+        if (!wheel.add(fireAtMs, occurrence)) {
+            ready.add(occurrence);
+        }
+    }
+
+    private void loadUpcoming() {
+        try {
+            LocalDateTime horizon = LocalDateTime.now().plusMinutes(horizonMinutes);
+            loadedUntil = horizon;
+            for (ScheduledTransfer scheduledTransfer : scheduledTransferService.findDueBefore(horizon)) {
+                enqueue(scheduledTransfer);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to load upcoming scheduled transfers", e);
+        }
+    }
+
+    private void tick() {
+        List<Occurrence> dispatch = new ArrayList<>();
+        synchronized (this) {
+            List<Occurrence> expired = new ArrayList<>();
+            wheel.advance(System.currentTimeMillis(), expired);
+            ready.addAll(expired);
+            while (inFlight.get() < batchSize && !ready.isEmpty()) {
+                inFlight.incrementAndGet();
+                dispatch.add(ready.poll());
+            }
+        }
+        for (Occurrence occurrence : dispatch) {
+            workerPool.execute(() -> fire(occurrence));
+        }
+    }
+
+    private void fire(Occurrence occurrence) {
+        Optional<ScheduledTransfer> next = Optional.empty();
+        boolean retry = false;
+        try {
+            next = scheduledTransferService.executeOccurrence(occurrence.scheduledTransferId(), occurrence.occurrenceAt());
+        } catch (DataIntegrityViolationException e) {
+            // A duplicate means another attempt already recorded this occurrence. Any other
+            // constraint rejected the transfer itself, and retrying would only hit it again
+            if (!isRecorded(occurrence)) {
+                next = recordFailed(occurrence, "Rejected by the database: " + e.getMostSpecificCause().getMessage());
+            }
+        } catch (DataAccessException | TransactionException e) {
+            // Lock timeouts, deadlocks, lost connections: nothing was committed, so try again later
+            log.warn("Scheduled transfer {} at {} hit a database error, retrying in {} s: {}",
+                    occurrence.scheduledTransferId(), occurrence.occurrenceAt(), retryDelaySeconds, e.getMessage());
+            retry = true;
+        } catch (RuntimeException e) {
+            next = recordFailed(occurrence, e.getMessage());
+        } finally {
+            if (!retry) {
+                queued.remove(occurrence);
+            }
+            inFlight.decrementAndGet();
+        }
+        if (retry) {
+            schedule(occurrence, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retryDelaySeconds));
+        }
+        next.ifPresent(this::enqueue);
+    }
+
+    private boolean isRecorded(Occurrence occurrence) {
+        try {
+            return scheduledTransferService.isOccurrenceRecorded(occurrence.scheduledTransferId(), occurrence.occurrenceAt());
+        } catch (RuntimeException e) {
+            // Can't tell; assume it was, the next load re-queues the occurrence if it is still owed
+            return true;
+        }
+    }
+
+    private Optional<ScheduledTransfer> recordFailed(Occurrence occurrence, String reason) {
+        try {
+            return scheduledTransferService.recordFailedOccurrence(
+                    occurrence.scheduledTransferId(), occurrence.occurrenceAt(), reason);
+        } catch (DataIntegrityViolationException duplicate) {
+            // Recorded concurrently elsewhere
+        } catch (RuntimeException recordError) {
+            log.error("Failed to record scheduled transfer {} at {}", occurrence.scheduledTransferId(),
+                    occurrence.occurrenceAt(), recordError);
+        }
+        return Optional.empty();
+    }
+
+    // Deterministic per schedule, so a restart fires the same schedule at the same offset
+    private long spreadOffsetMs(Long scheduledTransferId) {
+        long windowMs = TimeUnit.SECONDS.toMillis(spreadWindowSeconds);
+        if (windowMs <= 0) {
+            return 0;
+        }
+        long mixed = scheduledTransferId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ (mixed >>> 32), windowMs);
+    }
+
+    private record Occurrence(Long scheduledTransferId, LocalDateTime occurrenceAt) {
+    }
+}
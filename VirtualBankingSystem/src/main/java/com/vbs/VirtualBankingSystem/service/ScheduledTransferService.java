@@ -0,0 +1,152 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.model.ScheduledTransfer;
+import com.vbs.VirtualBankingSystem.model.ScheduledTransferExecution;
+import com.vbs.VirtualBankingSystem.repository.ScheduledTransferExecutionRepository;
+import com.vbs.VirtualBankingSystem.repository.ScheduledTransferRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferExecutionRepository executionRepository;
+    private final TransactionService transactionService;
+    private final CustomerService customerService;
+
+    public ScheduledTransfer createScheduledTransfer(Long fromCustomerId, Long toCustomerId, BigDecimal amount,
+                                                     String description, ScheduledTransfer.Frequency frequency,
+                                                     LocalDateTime firstRunAt, LocalDateTime endAt) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Transfer amount must be greater than zero");
+        }
+        if (fromCustomerId.equals(toCustomerId)) {
+            throw new RuntimeException("Cannot transfer money to the same account");
+        }
+        if (frequency == null) {
+            throw new RuntimeException("Frequency is required");
+        }
+        if (firstRunAt == null || firstRunAt.isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("First run must be in the future");
+        }
+        if (endAt != null && endAt.isBefore(firstRunAt)) {
+            throw new RuntimeException("End date must not be before the first run");
+        }
+
+        // Validate both customers exist
+        customerService.getCustomerById(fromCustomerId);
+        customerService.getCustomerById(toCustomerId);
+
+        ScheduledTransfer scheduledTransfer = new ScheduledTransfer();
+        scheduledTransfer.setFromCustomerId(fromCustomerId);
+        scheduledTransfer.setToCustomerId(toCustomerId);
+        scheduledTransfer.setAmount(amount);
+        scheduledTransfer.setDescription(description);
+        scheduledTransfer.setFrequency(frequency);
+        scheduledTransfer.setFirstRunAt(firstRunAt);
+        scheduledTransfer.setNextRunAt(firstRunAt);
+        scheduledTransfer.setEndAt(endAt);
+        scheduledTransfer.setActive(true);
+        scheduledTransfer.setCreatedAt(LocalDateTime.now());
+
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+
+    public List<ScheduledTransfer> getCustomerScheduledTransfers(Long customerId) {
+        return scheduledTransferRepository.findByFromCustomerIdOrderByNextRunAtAsc(customerId);
+    }
+
+    public List<ScheduledTransferExecution> getExecutions(Long scheduledTransferId) {
+        return executionRepository.findByScheduledTransferIdOrderByOccurrenceAtDesc(scheduledTransferId);
+    }
+
+    public ScheduledTransfer cancelScheduledTransfer(Long id) {
+        ScheduledTransfer scheduledTransfer = getScheduledTransferById(id);
+        scheduledTransfer.setActive(false);
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+
+    public ScheduledTransfer getScheduledTransferById(Long id) {
+        return scheduledTransferRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Scheduled transfer not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScheduledTransfer> findDueBefore(LocalDateTime horizon) {
+        return scheduledTransferRepository.findByActiveTrueAndNextRunAtBefore(horizon);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isOccurrenceRecorded(Long id, LocalDateTime occurrenceAt) {
+        return executionRepository.existsByScheduledTransferIdAndOccurrenceAt(id, occurrenceAt);
+    }
+
+    /**
+     * Runs one occurrence. The execution row is inserted in the same transaction as the transfer,
+     * so a second attempt at the same occurrence (retry, restart, another node) fails on the unique
+     * key and rolls back without moving money. Returns the schedule if it is still owed an occurrence.
+     */
+    public Optional<ScheduledTransfer> executeOccurrence(Long id, LocalDateTime occurrenceAt) {
+        ScheduledTransfer scheduledTransfer = getScheduledTransferById(id);
+        if (!scheduledTransfer.isActive() || !occurrenceAt.equals(scheduledTransfer.getNextRunAt())) {
+            return Optional.empty();
+        }
+
+        executionRepository.saveAndFlush(newExecution(id, occurrenceAt, ScheduledTransferExecution.Status.SUCCEEDED, null));
+        transactionService.transferMoney(
+                scheduledTransfer.getFromCustomerId(),
+                scheduledTransfer.getToCustomerId(),
+                scheduledTransfer.getAmount(),
+                scheduledTransfer.getDescription()
+        );
+
+        return advance(scheduledTransfer, occurrenceAt);
+    }
+
+    /**
+     * Records an occurrence whose transfer was rejected (e.g. insufficient balance) so it is not retried.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<ScheduledTransfer> recordFailedOccurrence(Long id, LocalDateTime occurrenceAt, String reason) {
+        ScheduledTransfer scheduledTransfer = getScheduledTransferById(id);
+        if (!scheduledTransfer.isActive() || !occurrenceAt.equals(scheduledTransfer.getNextRunAt())) {
+            return Optional.empty();
+        }
+
+        executionRepository.saveAndFlush(newExecution(id, occurrenceAt, ScheduledTransferExecution.Status.FAILED, reason));
+        return advance(scheduledTransfer, occurrenceAt);
+    }
+
+    private Optional<ScheduledTransfer> advance(ScheduledTransfer scheduledTransfer, LocalDateTime occurrenceAt) {
+        LocalDateTime anchor = scheduledTransfer.getFirstRunAt() != null ? scheduledTransfer.getFirstRunAt() : occurrenceAt;
+        LocalDateTime next = scheduledTransfer.getFrequency().next(anchor, occurrenceAt);
+        if (next == null || (scheduledTransfer.getEndAt() != null && next.isAfter(scheduledTransfer.getEndAt()))) {
+            scheduledTransfer.setActive(false);
+        } else {
+            scheduledTransfer.setNextRunAt(next);
+        }
+        ScheduledTransfer saved = scheduledTransferRepository.save(scheduledTransfer);
+        return saved.isActive() ? Optional.of(saved) : Optional.empty();
+    }
+
+    private static ScheduledTransferExecution newExecution(Long id, LocalDateTime occurrenceAt,
+                                                           ScheduledTransferExecution.Status status, String message) {
+        ScheduledTransferExecution execution = new ScheduledTransferExecution();
+        execution.setScheduledTransferId(id);
+        execution.setOccurrenceAt(occurrenceAt);
+        execution.setStatus(status);
+        execution.setMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        execution.setExecutedAt(LocalDateTime.now());
+        return execution;
+    }
+}
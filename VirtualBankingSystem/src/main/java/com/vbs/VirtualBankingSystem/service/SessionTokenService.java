@@ -0,0 +1,111 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stateless session tokens: {@code base64url(customerId, expiresAt)} + "." + {@code base64url(HMAC-SHA256)}.
+ * Verifying one is a MAC over 16 bytes and a clock check, with no database access.
+ */
+@Slf4j
+@Service
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 16;
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac> macs;
+
+    public SessionTokenService(AuthProperties properties) {
+        byte[] secret;
+        if (properties.getTokenSecret() == null || properties.getTokenSecret().isBlank()) {
+            if (properties.isRequireToken()) {
+                // Every node must verify every other node's tokens, so a random key would lock users out
+                throw new IllegalStateException("vbs.auth.token-secret must be set when tokens are required "
+                        + "(the prod profile reads it from VBS_TOKEN_SECRET); generate one with: openssl rand -base64 32");
+            }
+            log.warn("vbs.auth.token-secret is not set; using a random key, so tokens do not survive a restart");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            try {
+                secret = Base64.getDecoder().decode(properties.getTokenSecret().trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("vbs.auth.token-secret is not valid base64: " + e.getMessage(), e);
+            }
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("vbs.auth.token-secret must decode to at least "
+                        + MIN_SECRET_BYTES + " bytes, got " + secret.length);
+            }
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttlSeconds = TimeUnit.MINUTES.toSeconds(properties.getTokenTtlMinutes());
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Token signing is unavailable", e);
+            }
+        });
+    }
+
+    public String issue(Long customerId) {
+        return issue(customerId, Instant.now().getEpochSecond() + ttlSeconds);
+    }
+
+    String issue(Long customerId, long expiresAtEpochSecond) {
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES).putLong(customerId).putLong(expiresAtEpochSecond).array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(macs.get().doFinal(payload));
+    }
+
+    /**
+     * Returns the customer id if the token is authentic and unexpired.
+     */
+    public OptionalLong verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot < 0) {
+            return OptionalLong.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payload = decoder.decode(token.substring(0, dot));
+            signature = decoder.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(signature, macs.get().doFinal(payload))) {
+            return OptionalLong.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long customerId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (Instant.now().getEpochSecond() >= expiresAt) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(customerId);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
@@ -0,0 +1,59 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically folds each striped account's slots back into one, one account per transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripedBalanceCompactor {
+
+    private final StripedBalanceService stripedBalanceService;
+
+    @Value("${vbs.striped-balance.compaction-interval-seconds:60}")
+    private long compactionIntervalSeconds;
+
+    private ScheduledExecutorService executor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (compactionIntervalSeconds <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::compactAll, compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void compactAll() {
+        try {
+            for (Long customerId : stripedBalanceService.getStripedCustomerIds()) {
+                try {
+                    stripedBalanceService.compact(customerId);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to compact striped balance for customer {}", customerId, e);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Striped balance compaction run failed", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.model.BalanceSlot;
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.repository.BalanceSlotRepository;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped balances for hot accounts. A striped account's balance lives in
+ * {@code balance_slots} rows instead of {@code customers.balance}, so concurrent
+ * credits lock different rows. {@code customers.balance} only holds the total as
+ * of the last compaction.
+ *
+ * For striped accounts, {@code Transaction.balanceAfterTransaction} is the slot total
+ * the transaction saw right after its own write. Credits that commit at the same time
+ * may be missing from it, so consecutive rows don't always chain exactly.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StripedBalanceService {
+
+    public static final int MAX_SLOTS = 64;
+
+    private static final int DEBIT_ATTEMPTS = 3;
+
+    private final CustomerRepository customerRepository;
+    private final BalanceSlotRepository balanceSlotRepository;
+
+    public Customer enableStriping(Long customerId, int slots) {
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new RuntimeException("Slot count must be between 1 and " + MAX_SLOTS);
+        }
+        Customer customer = lockCustomer(customerId);
+        if (customer.isBalanceStriped()) {
+            throw new RuntimeException("Balance is already striped for customer: " + customerId);
+        }
+
+        for (int i = 0; i < slots; i++) {
+            BalanceSlot slot = new BalanceSlot();
+            slot.setCustomerId(customerId);
+            slot.setSlotIndex(i);
+            slot.setBalance(i == 0 ? customer.getBalance() : BigDecimal.ZERO);
+            balanceSlotRepository.save(slot);
+        }
+        customer.setBalanceSlots(slots);
+        return customerRepository.save(customer);
+    }
+
+    public Customer disableStriping(Long customerId) {
+        Customer customer = lockCustomer(customerId);
+        if (!customer.isBalanceStriped()) {
+            throw new RuntimeException("Balance is not striped for customer: " + customerId);
+        }
+
+        BigDecimal total = sum(balanceSlotRepository.lockSlots(customerId));
+        balanceSlotRepository.deleteByCustomerId(customerId);
+        customer.setBalance(total);
+        customer.setBalanceSlots(0);
+        return customerRepository.save(customer);
+    }
+
+    public BigDecimal getBalance(Long customerId) {
+        return balanceSlotRepository.sumBalance(customerId);
+    }
+
+    /**
+     * Adds to one randomly chosen slot and returns the total seen afterwards.
+     */
+    public BigDecimal credit(Customer customer, BigDecimal amount) {
+        int slot = ThreadLocalRandom.current().nextInt(customer.getBalanceSlots());
+        if (balanceSlotRepository.credit(customer.getId(), slot, amount) != 1) {
+            // Striping was disabled (or changed) since the customer was loaded; nothing was credited
+            throw new RuntimeException("Balance slots changed for customer: " + customer.getId() + ". Please retry");
+        }
+        return balanceSlotRepository.sumBalance(customer.getId());
+    }
+
+    /**
+     * Takes the amount from a single slot that can cover it. If no slot can, the slots are
+     * locked and folded into slot 0 before debiting.
+     */
+    public BigDecimal debit(Customer customer, BigDecimal amount) {
+        Long customerId = customer.getId();
+        for (int attempt = 0; attempt < DEBIT_ATTEMPTS; attempt++) {
+            List<Integer> candidate = balanceSlotRepository.findSlotsCovering(customerId, amount, PageRequest.of(0, 1));
+            if (candidate.isEmpty()) {
+                break;
+            }
+            if (balanceSlotRepository.debitIfSufficient(customerId, candidate.get(0), amount) == 1) {
+                return balanceSlotRepository.sumBalance(customerId);
+            }
+        }
+
+        List<BalanceSlot> slots = balanceSlotRepository.lockSlots(customerId);
+        if (slots.isEmpty()) {
+            throw new RuntimeException("Balance slots changed for customer: " + customerId + ". Please retry");
+        }
+        BigDecimal total = sum(slots);
+        if (total.compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance. Available balance: " + total);
+        }
+        BigDecimal remaining = total.subtract(amount);
+        fold(slots, remaining);
+        return remaining;
+    }
+
+    /**
+     * Folds all slots into slot 0 and refreshes the total cached on the customer row.
+     */
+    public BigDecimal compact(Long customerId) {
+        List<BalanceSlot> slots = balanceSlotRepository.lockSlots(customerId);
+        if (slots.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal total = sum(slots);
+        fold(slots, total);
+        customerRepository.updateBalance(customerId, total);
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getStripedCustomerIds() {
+        return customerRepository.findStripedCustomerIds();
+    }
+
+    private Customer lockCustomer(Long customerId) {
+        return customerRepository.findByIdForUpdate(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
+    }
+
+    // Slots arrive locked and ordered by index
+    private void fold(List<BalanceSlot> slots, BigDecimal total) {
+        for (BalanceSlot slot : slots) {
+            BigDecimal target = slot.getSlotIndex() == 0 ? total : BigDecimal.ZERO;
+            if (slot.getBalance().compareTo(target) != 0) {
+                slot.setBalance(target);
+                balanceSlotRepository.save(slot);
+            }
+        }
+    }
+
+    private static BigDecimal sum(List<BalanceSlot> slots) {
+        return slots.stream().map(BalanceSlot::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
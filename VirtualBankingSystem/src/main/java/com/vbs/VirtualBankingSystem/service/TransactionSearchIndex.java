@@ -0,0 +1,260 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Inverted index over one customer's transactions. Documents are numbered in the order
+ * they were added, and their filterable fields live in parallel primitive arrays. Each
+ * description token maps to a posting list of document numbers, stored as varint-encoded
+ * deltas. Callers synchronize through the read/write methods of {@link TransactionSearchService}.
+ */
+class TransactionSearchIndex {
+
+    private long[] transactionIds = new long[8];
+    private long[] amountCents = new long[8];
+    private long[] timestamps = new long[8];
+    private byte[] types = new byte[8];
+    private int size;
+    private long maxTransactionId = Long.MIN_VALUE;
+
+    private final LongSet indexedIds = new LongSet();
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Adds a transaction unless it is already indexed. Tokens go through {@code canonical}
+     * so that common terms are shared between customers.
+     */
+    boolean add(long transactionId, byte type, long cents, long timestamp, String description,
+                UnaryOperator<String> canonical) {
+        if (!indexedIds.add(transactionId)) {
+            return false;
+        }
+        if (size == transactionIds.length) {
+            int capacity = size * 2;
+            transactionIds = Arrays.copyOf(transactionIds, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        int doc = size++;
+        maxTransactionId = Math.max(maxTransactionId, transactionId);
+        transactionIds[doc] = transactionId;
+        amountCents[doc] = cents;
+        timestamps[doc] = timestamp;
+        types[doc] = type;
+
+        for (String token : tokenize(description)) {
+            postings.computeIfAbsent(canonical.apply(token), t -> new PostingList()).add(doc);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ids of matching transactions, newest first.
+     */
+    List<Long> search(List<String> terms, Byte type, Long minCents, Long maxCents,
+                      Long fromTimestamp, Long toTimestamp, int limit) {
+        int[] candidates = candidates(terms);
+
+        List<Integer> matches = new ArrayList<>();
+        for (int doc : candidates) {
+            if (type != null && types[doc] != type) {
+                continue;
+            }
+            if (minCents != null && amountCents[doc] < minCents) {
+                continue;
+            }
+            if (maxCents != null && amountCents[doc] > maxCents) {
+                continue;
+            }
+            if (fromTimestamp != null && timestamps[doc] < fromTimestamp) {
+                continue;
+            }
+            if (toTimestamp != null && timestamps[doc] > toTimestamp) {
+                continue;
+            }
+            matches.add(doc);
+        }
+
+        matches.sort((a, b) -> Long.compare(timestamps[b], timestamps[a]));
+        List<Long> ids = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            ids.add(transactionIds[matches.get(i)]);
+        }
+        return ids;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Long.MIN_VALUE while empty
+    long maxTransactionId() {
+        return maxTransactionId;
+    }
+
+    private int[] candidates(List<String> terms) {
+        if (terms.isEmpty()) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // Start from the rarest term so intermediate results stay small
+        lists.sort((a, b) -> Integer.compare(a.count, b.count));
+
+        int[] result = lists.get(0).decode();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i).decode());
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Increasing document numbers stored as varint deltas; most deltas fit in one byte
+    private static final class PostingList {
+        private byte[] data = new byte[4];
+        private int length;
+        private int count;
+        private int last = -1;
+
+        void add(int doc) {
+            if (doc == last) {
+                return;
+            }
+            int delta = doc - last;
+            last = doc;
+            count++;
+            while (true) {
+                if (length + 1 > data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                if ((delta & ~0x7F) == 0) {
+                    data[length++] = (byte) delta;
+                    return;
+                }
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+        }
+
+        int[] decode() {
+            int[] docs = new int[count];
+            int doc = -1;
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                docs[i] = doc;
+            }
+            return docs;
+        }
+    }
+
+    // Open-addressing set of transaction ids, used to skip rows that are indexed twice
+    private static final class LongSet {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] slots = newSlots(16);
+        private int size;
+
+        boolean add(long value) {
+            if ((size + 1) * 2 > slots.length) {
+                long[] old = slots;
+                slots = newSlots(old.length * 2);
+                for (long v : old) {
+                    if (v != EMPTY) {
+                        insert(v);
+                    }
+                }
+            }
+            if (!insert(value)) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        private boolean insert(long value) {
+            int mask = slots.length - 1;
+            int i = (int) (mix(value) & mask);
+            while (slots[i] != EMPTY) {
+                if (slots[i] == value) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            slots[i] = value;
+            return true;
+        }
+
+        private static long mix(long value) {
+            long h = value * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+
+        private static long[] newSlots(int capacity) {
+            long[] slots = new long[capacity];
+            Arrays.fill(slots, EMPTY);
+            return slots;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.PassbookDTO;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Search over a customer's transactions by description text, type, amount and date range,
+ * backed by per-customer {@link TransactionSearchIndex}es held in memory. The indexes are built
+ * from the transactions table in parallel at startup and then kept current from
+ * {@link TransactionService} writes after commit. Until the first build finishes, searches fall
+ * back to the table: a LIKE on one query token narrows the rows, and the same tokenizer as the
+ * index then keeps only descriptions containing every query token, so both paths return the same
+ * matches.
+ *
+ * Each node only sees its own writes, so before searching a customer's index its size is compared
+ * with the customer's row count in the table. Transactions are never deleted, so a shorter index is
+ * missing rows written by another node (or still waiting for a local after-commit hook); those are
+ * loaded first, by id above the highest one indexed and then in full if that wasn't enough.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionSearchService {
+
+    // Token strings shared between customers' indexes; rarer tokens beyond this stay per-index
+    private static final int MAX_SHARED_TOKENS = 100_000;
+    private static final int FALLBACK_PAGE_SIZE = 200;
+
+    private final TransactionRepository transactionRepository;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${vbs.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${vbs.search.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private volatile Map<Long, IndexHolder> indexes = new ConcurrentHashMap<>();
+    private volatile Queue<IndexedTransaction> rebuildBuffer;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ConcurrentHashMap<String, String> canonicalTokens = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildInBackground();
+        }
+    }
+
+    /**
+     * Starts a rebuild on its own thread, unless one is already running.
+     *
+     * @return false if a rebuild was already in progress
+     */
+    public boolean rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "transaction-search-rebuild");
+        builder.setDaemon(true);
+        builder.start();
+        return true;
+    }
+
+    /**
+     * Rebuilds every customer's index from the table, one customer id range per thread.
+     * Writes that commit during the rebuild are buffered and replayed into the new indexes.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Queue<IndexedTransaction> buffer = new ConcurrentLinkedQueue<>();
+        rebuildBuffer = buffer;
+        try {
+            JdbcTemplate streaming = new JdbcTemplate(dataSource);
+            // MySQL Connector/J streams rows one by one only with this fetch size
+            streaming.setFetchSize(Integer.MIN_VALUE);
+
+            Map<String, Object> bounds = streaming.queryForMap(
+                    "SELECT MIN(customer_id) AS lo, MAX(customer_id) AS hi FROM transactions");
+            Map<Long, IndexHolder> rebuilt = new ConcurrentHashMap<>();
+            if (bounds.get("lo") != null) {
+                long lo = ((Number) bounds.get("lo")).longValue();
+                long hi = ((Number) bounds.get("hi")).longValue();
+                long span = Math.max(1, (hi - lo + rebuildThreads) / rebuildThreads);
+
+                ExecutorService pool = Executors.newFixedThreadPool(rebuildThreads);
+                try {
+                    List<Future<?>> parts = new ArrayList<>();
+                    for (long start = lo; start <= hi; start += span) {
+                        long from = start;
+                        long to = Math.min(hi, start + span - 1);
+                        parts.add(pool.submit(() -> streaming.query(
+                                "SELECT id, customer_id, type, amount, description, timestamp FROM transactions " +
+                                "WHERE customer_id BETWEEN ? AND ?",
+                                rs -> {
+                                    index(rebuilt, row(rs));
+                                },
+                                from, to)));
+                    }
+                    for (Future<?> part : parts) {
+                        part.get();
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            indexes = rebuilt;
+            replay(buffer);
+            rebuildBuffer = null;
+            // Writes may have reached the buffer between the first replay and clearing it
+            replay(buffer);
+            ready = true;
+            log.info("Transaction search index rebuilt for {} customers in {} ms", rebuilt.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            rebuildBuffer = null;
+            log.error("Transaction search index rebuild failed", e);
+        }
+    }
+
+    /**
+     * Indexes the transaction once the surrounding database transaction commits.
+     */
+    public void indexAfterCommit(Transaction transaction) {
+        IndexedTransaction row = new IndexedTransaction(
+                transaction.getId(), transaction.getCustomer().getId(), transaction.getType(),
+                transaction.getAmount(), transaction.getDescription(), transaction.getTimestamp());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index(row);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(row);
+            }
+        });
+    }
+
+    /**
+     * Indexes every transaction of the given customers once the surrounding database transaction
+     * commits, for rows written with plain JDBC (e.g. imported opening balances).
+     */
+    public void indexCustomersAfterCommit(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        List<String> batch = List.copyOf(usernames);
+        Runnable load = () -> namedParameterJdbcTemplate.query(
+                "SELECT t.id, t.customer_id, t.type, t.amount, t.description, t.timestamp FROM transactions t " +
+                "JOIN customers c ON c.id = t.customer_id WHERE c.username IN (:usernames)",
+                Map.of("usernames", batch),
+                rs -> {
+                    index(row(rs));
+                });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            load.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                load.run();
+            }
+        });
+    }
+
+    public List<PassbookDTO.TransactionSummaryDTO> search(Long customerId, String query,
+                                                          Transaction.TransactionType type,
+                                                          BigDecimal minAmount, BigDecimal maxAmount,
+                                                          LocalDateTime from, LocalDateTime to, int limit) {
+        List<Transaction> transactions;
+        if (ready) {
+            List<Long> ids = List.of();
+            IndexHolder holder = catchUp(customerId);
+            if (holder != null) {
+                List<String> terms = TransactionSearchIndex.tokenize(query);
+                holder.lock.readLock().lock();
+                try {
+                    ids = holder.index.search(terms,
+                            type == null ? null : (byte) type.ordinal(),
+                            minAmount == null ? null : toCents(minAmount),
+                            maxAmount == null ? null : toCents(maxAmount),
+                            from == null ? null : toEpochMillis(from),
+                            to == null ? null : toEpochMillis(to),
+                            limit);
+                } finally {
+                    holder.lock.readLock().unlock();
+                }
+            }
+            Map<Long, Integer> order = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                order.put(ids.get(i), i);
+            }
+            transactions = transactionRepository.findAllById(ids).stream()
+                    .sorted(Comparator.comparing(t -> order.get(t.getId())))
+                    .collect(Collectors.toList());
+        } else {
+            transactions = searchTable(customerId, query, type, minAmount, maxAmount, from, to, limit);
+        }
+
+        return transactions.stream()
+                .map(t -> new PassbookDTO.TransactionSummaryDTO(
+                        t.getId(),
+                        t.getType().toString(),
+                        t.getAmount(),
+                        t.getBalanceAfterTransaction(),
+                        t.getDescription(),
+                        t.getTimestamp()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Loads rows the table has but this node's index doesn't, e.g. ones written through another node
+    private IndexHolder catchUp(Long customerId) {
+        Long stored = namedParameterJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE customer_id = :customerId",
+                Map.of("customerId", customerId), Long.class);
+        IndexHolder holder = indexes.get(customerId);
+        if (stored == null || holder != null && holder.size() >= stored) {
+            return holder;
+        }
+
+        // New rows usually have higher ids than anything indexed, but a lower id can commit late
+        load(customerId, holder == null ? Long.MIN_VALUE : holder.maxTransactionId());
+        holder = indexes.get(customerId);
+        if (holder == null || holder.size() < stored) {
+            load(customerId, Long.MIN_VALUE);
+            holder = indexes.get(customerId);
+        }
+        return holder;
+    }
+
+    private void load(Long customerId, long afterId) {
+        namedParameterJdbcTemplate.query(
+                "SELECT id, customer_id, type, amount, description, timestamp FROM transactions " +
+                "WHERE customer_id = :customerId AND id > :afterId",
+                Map.of("customerId", customerId, "afterId", afterId),
+                rs -> {
+                    index(row(rs));
+                });
+    }
+
+    // Same matching as the index: every query token must appear as a whole token of the description
+    private List<Transaction> searchTable(Long customerId, String query, Transaction.TransactionType type,
+                                          BigDecimal minAmount, BigDecimal maxAmount,
+                                          LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> terms = TransactionSearchIndex.tokenize(query);
+        // The longest token is usually the most selective prefilter
+        String like = terms.stream().max(Comparator.comparingInt(String::length)).orElse(null);
+
+        List<Transaction> matches = new ArrayList<>();
+        for (int page = 0; matches.size() < limit; page++) {
+            List<Transaction> rows = transactionRepository.searchCustomerTransactions(customerId, like,
+                    type, minAmount, maxAmount, from, to, PageRequest.of(page, FALLBACK_PAGE_SIZE));
+            for (Transaction row : rows) {
+                if (matches.size() < limit
+                        && new HashSet<>(TransactionSearchIndex.tokenize(row.getDescription())).containsAll(terms)) {
+                    matches.add(row);
+                }
+            }
+            if (rows.size() < FALLBACK_PAGE_SIZE) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void index(IndexedTransaction row) {
+        Queue<IndexedTransaction> buffer = rebuildBuffer;
+        if (buffer != null) {
+            buffer.add(row);
+        }
+        index(indexes, row);
+    }
+
+    private void index(Map<Long, IndexHolder> target, IndexedTransaction row) {
+        IndexHolder holder = target.computeIfAbsent(row.customerId(), id -> new IndexHolder());
+        holder.lock.writeLock().lock();
+        try {
+            holder.index.add(row.id(), (byte) row.type().ordinal(), toCents(row.amount()),
+                    toEpochMillis(row.timestamp()), row.description(), this::canonical);
+        } finally {
+            holder.lock.writeLock().unlock();
+        }
+    }
+
+    private String canonical(String token) {
+        String shared = canonicalTokens.get(token);
+        if (shared != null) {
+            return shared;
+        }
+        if (canonicalTokens.size() >= MAX_SHARED_TOKENS) {
+            return token;
+        }
+        shared = canonicalTokens.putIfAbsent(token, token);
+        return shared != null ? shared : token;
+    }
+
+    private void replay(Queue<IndexedTransaction> buffer) {
+        IndexedTransaction row;
+        while ((row = buffer.poll()) != null) {
+            index(indexes, row);
+        }
+    }
+
+    private static IndexedTransaction row(ResultSet rs) throws SQLException {
+        return new IndexedTransaction(
+                rs.getLong(1), rs.getLong(2),
+                Transaction.TransactionType.valueOf(rs.getString(3)),
+                rs.getBigDecimal(4), rs.getString(5),
+                rs.getTimestamp(6).toLocalDateTime());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private record IndexedTransaction(long id, long customerId, Transaction.TransactionType type,
+                                      BigDecimal amount, String description, LocalDateTime timestamp) {
+    }
+
+    private static final class IndexHolder {
+        private final TransactionSearchIndex index = new TransactionSearchIndex();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return index.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long maxTransactionId() {
+            lock.readLock().lock();
+            try {
+                return index.maxTransactionId();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -20,18 +20,27 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final CustomerService customerService;
+    private final StripedBalanceService stripedBalanceService;
+    private final TransactionSearchService transactionSearchService;
+    private final BalanceSnapshotService balanceSnapshotService;
 
     public Transaction depositMoney(Long customerId, BigDecimal amount, String description) {
+        return depositMoney(customerId, amount, description, LocalDateTime.now());
+    }
+
+    /**
+     * Deposits with an explicit timestamp, for movements accepted earlier than they are applied.
+     */
+    public Transaction depositMoney(Long customerId, BigDecimal amount, String description, LocalDateTime timestamp) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Deposit amount must be greater than zero");
         }
 
         Customer customer = customerService.getCustomerById(customerId);
+        customerService.lockForBalanceUpdate(customer);
 
         // Update customer balance
-        BigDecimal newBalance = customer.getBalance().add(amount);
-        customer.setBalance(newBalance);
-        customerService.updateCustomerBalance(customer);
+        BigDecimal newBalance = credit(customer, amount);
 
         // Create transaction record
         Transaction transaction = new Transaction();
@@ -39,28 +48,26 @@ public class TransactionService {
         transaction.setAmount(amount);
         transaction.setBalanceAfterTransaction(newBalance);
         transaction.setDescription(description != null ? description : "Money deposited");
-        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setTimestamp(timestamp);
         transaction.setCustomer(customer);
 
-        return transactionRepository.save(transaction);
+        return record(transaction);
     }
 
     public Transaction withdrawMoney(Long customerId, BigDecimal amount, String description) {
+        return withdrawMoney(customerId, amount, description, LocalDateTime.now());
+    }
+
+    public Transaction withdrawMoney(Long customerId, BigDecimal amount, String description, LocalDateTime timestamp) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Withdrawal amount must be greater than zero");
         }
 
         Customer customer = customerService.getCustomerById(customerId);
+        customerService.lockForBalanceUpdate(customer);
 
-        // Check if customer has sufficient balance
-        if (customer.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance. Available balance: " + customer.getBalance());
-        }
-
-        // Update customer balance
-        BigDecimal newBalance = customer.getBalance().subtract(amount);
-        customer.setBalance(newBalance);
-        customerService.updateCustomerBalance(customer);
+        // Check balance and update it
+        BigDecimal newBalance = debit(customer, amount);
 
         // Create transaction record
         Transaction transaction = new Transaction();
@@ -68,10 +75,10 @@ public class TransactionService {
         transaction.setAmount(amount);
         transaction.setBalanceAfterTransaction(newBalance);
         transaction.setDescription(description != null ? description : "Money withdrawn");
-        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setTimestamp(timestamp);
         transaction.setCustomer(customer);
 
-        return transactionRepository.save(transaction);
+        return record(transaction);
     }
 
     public List<Transaction> getCustomerTransactions(Long customerId) {
@@ -101,13 +108,18 @@ public class TransactionService {
         return new PassbookDTO(
                 customer.getId(),
                 customer.getFirstName() + " " + customer.getLastName(),
-                customer.getBalance(),
+                customerService.getCustomerBalance(customer),
                 transactions.size(),
                 transactionSummaries
         );
     }
 
     public List<Transaction> transferMoney(Long fromCustomerId, Long toCustomerId, BigDecimal amount, String description) {
+        return transferMoney(fromCustomerId, toCustomerId, amount, description, LocalDateTime.now());
+    }
+
+    public List<Transaction> transferMoney(Long fromCustomerId, Long toCustomerId, BigDecimal amount, String description,
+                                           LocalDateTime timestamp) {
         // Validation checks
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Transfer amount must be greater than zero");
@@ -120,22 +132,11 @@ public class TransactionService {
         // Get both customers and validate they exist
         Customer fromCustomer = customerService.getCustomerById(fromCustomerId);
         Customer toCustomer = customerService.getCustomerById(toCustomerId);
+        customerService.lockForBalanceUpdate(fromCustomer, toCustomer);
 
-        // Check if sender has sufficient balance
-        if (fromCustomer.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance. Available balance: " + fromCustomer.getBalance());
-        }
-
-        // Update balances
-        BigDecimal fromNewBalance = fromCustomer.getBalance().subtract(amount);
-        BigDecimal toNewBalance = toCustomer.getBalance().add(amount);
-
-        fromCustomer.setBalance(fromNewBalance);
-        toCustomer.setBalance(toNewBalance);
-
-        // Update customer balances in database
-        customerService.updateCustomerBalance(fromCustomer);
-        customerService.updateCustomerBalance(toCustomer);
+        // Check sender balance and update both balances
+        BigDecimal fromNewBalance = debit(fromCustomer, amount);
+        BigDecimal toNewBalance = credit(toCustomer, amount);
 
         // Create debit transaction for sender
         Transaction debitTransaction = new Transaction();
@@ -145,7 +146,7 @@ public class TransactionService {
         debitTransaction.setDescription(description != null ?
                 "Transfer to " + toCustomer.getFirstName() + " " + toCustomer.getLastName() + " - " + description :
                 "Transfer to " + toCustomer.getFirstName() + " " + toCustomer.getLastName());
-        debitTransaction.setTimestamp(LocalDateTime.now());
+        debitTransaction.setTimestamp(timestamp);
         debitTransaction.setCustomer(fromCustomer);
 
         // Create credit transaction for recipient
@@ -156,14 +157,47 @@ public class TransactionService {
         creditTransaction.setDescription(description != null ?
                 "Transfer from " + fromCustomer.getFirstName() + " " + fromCustomer.getLastName() + " - " + description :
                 "Transfer from " + fromCustomer.getFirstName() + " " + fromCustomer.getLastName());
-        creditTransaction.setTimestamp(LocalDateTime.now());
+        creditTransaction.setTimestamp(timestamp);
         creditTransaction.setCustomer(toCustomer);
 
         // Save both transactions
-        Transaction savedDebitTransaction = transactionRepository.save(debitTransaction);
-        Transaction savedCreditTransaction = transactionRepository.save(creditTransaction);
+        Transaction savedDebitTransaction = record(debitTransaction);
+        Transaction savedCreditTransaction = record(creditTransaction);
 
         // Return both transactions
         return List.of(savedDebitTransaction, savedCreditTransaction);
     }
-}
\ No newline at end of file
+
+    private Transaction record(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        transactionSearchService.indexAfterCommit(saved);
+        balanceSnapshotService.invalidateAfterCommit(saved.getCustomer().getId(), saved.getTimestamp());
+        return saved;
+    }
+
+    // Returns the balance after the credit; striped accounts go through their balance slots.
+    // Plain balances must already be locked by lockForBalanceUpdate: the whole row is written back,
+    // and the re-read shows whether the account was striped since it was loaded.
+    private BigDecimal credit(Customer customer, BigDecimal amount) {
+        if (customer.isBalanceStriped()) {
+            return stripedBalanceService.credit(customer, amount);
+        }
+        BigDecimal newBalance = customer.getBalance().add(amount);
+        customer.setBalance(newBalance);
+        customerService.updateCustomerBalance(customer);
+        return newBalance;
+    }
+
+    private BigDecimal debit(Customer customer, BigDecimal amount) {
+        if (customer.isBalanceStriped()) {
+            return stripedBalanceService.debit(customer, amount);
+        }
+        if (customer.getBalance().compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance. Available balance: " + customer.getBalance());
+        }
+        BigDecimal newBalance = customer.getBalance().subtract(amount);
+        customer.setBalance(newBalance);
+        customerService.updateCustomerBalance(customer);
+        return newBalance;
+    }
+}
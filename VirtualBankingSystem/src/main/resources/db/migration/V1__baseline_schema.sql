@@ -0,0 +1,65 @@
+-- Baseline matching the schema Hibernate generates for the entities (ddl-auto=update).
+-- Databases that were created by ddl-auto are baselined at version 1 instead of running this.
+
+create table customers (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    phone_number varchar(255) not null,
+    balance decimal(15,2) not null,
+    balance_slots integer not null default 0,
+    primary key (id),
+    constraint UKbepynu3b6l8k2ppuq6b33xfxc unique (username),
+    constraint UKrfbvkrffamfql7cjmen8v976v unique (email)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    type enum ('DEPOSIT','WITHDRAWAL') not null,
+    amount decimal(15,2) not null,
+    balance_after_transaction decimal(15,2),
+    description varchar(500),
+    timestamp datetime(6) not null,
+    customer_id bigint not null,
+    primary key (id),
+    constraint FKpnnreq9lpejqyjfct60v7n7x1 foreign key (customer_id) references customers (id)
+) engine=InnoDB;
+
+create table scheduled_transfers (
+    id bigint not null auto_increment,
+    from_customer_id bigint not null,
+    to_customer_id bigint not null,
+    amount decimal(15,2) not null,
+    description varchar(200),
+    frequency enum ('DAILY','MONTHLY','ONCE','WEEKLY') not null,
+    next_run_at datetime(6) not null,
+    end_at datetime(6),
+    active bit not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_scheduled_transfers_due on scheduled_transfers (active, next_run_at);
+
+create table scheduled_transfer_executions (
+    id bigint not null auto_increment,
+    scheduled_transfer_id bigint not null,
+    occurrence_at datetime(6) not null,
+    status enum ('FAILED','SUCCEEDED') not null,
+    message varchar(500),
+    executed_at datetime(6) not null,
+    primary key (id),
+    constraint uk_scheduled_transfer_occurrence unique (scheduled_transfer_id, occurrence_at)
+) engine=InnoDB;
+
+create table balance_slots (
+    id bigint not null auto_increment,
+    customer_id bigint not null,
+    slot_index integer not null,
+    balance decimal(15,2) not null,
+    primary key (id),
+    constraint uk_balance_slot unique (customer_id, slot_index)
+) engine=InnoDB;
@@ -0,0 +1,13 @@
+-- Point-in-time balances: periodic and month-start snapshots, replayed forward over transactions
+
+create table balance_snapshots (
+    id bigint not null auto_increment,
+    customer_id bigint not null,
+    as_of datetime(6) not null,
+    balance decimal(15,2) not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_balance_snapshot unique (customer_id, as_of)
+) engine=InnoDB;
+
+create index idx_transactions_customer_time on transactions (customer_id, timestamp);
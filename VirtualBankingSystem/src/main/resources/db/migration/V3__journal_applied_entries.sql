@@ -0,0 +1,12 @@
+-- Outcomes of write-ahead journal entries, written in the same transaction as their effects
+
+create table journal_applied_entries (
+    id bigint not null auto_increment,
+    journal_id varchar(64) not null,
+    sequence bigint not null,
+    status enum ('APPLIED','REJECTED') not null,
+    message varchar(500),
+    applied_at datetime(6) not null,
+    primary key (id),
+    constraint uk_journal_entry unique (journal_id, sequence)
+) engine=InnoDB;
@@ -0,0 +1,16 @@
+-- Recurrences step from their first run instead of the previous occurrence.
+-- Guarded so it is a no-op where ddl-auto already added the column.
+
+set @missing := (select count(*) = 0 from information_schema.columns
+                 where table_schema = database() and table_name = 'scheduled_transfers' and column_name = 'first_run_at');
+set @ddl := if(@missing, 'alter table scheduled_transfers add column first_run_at datetime(6)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+-- The earliest recorded occurrence is the original anchor, even if later ones already drifted
+update scheduled_transfers s
+set first_run_at = coalesce(
+        (select min(e.occurrence_at) from scheduled_transfer_executions e where e.scheduled_transfer_id = s.id),
+        s.next_run_at)
+where first_run_at is null;
@@ -0,0 +1,16 @@
+-- Client-supplied idempotency keys, so a retried money movement is answered with the first entry.
+-- Guarded so it is a no-op where ddl-auto already added the column or constraint.
+
+set @missing := (select count(*) = 0 from information_schema.columns
+                 where table_schema = database() and table_name = 'journal_applied_entries' and column_name = 'idempotency_key');
+set @ddl := if(@missing, 'alter table journal_applied_entries add column idempotency_key varchar(120)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @missing := (select count(*) = 0 from information_schema.statistics
+                 where table_schema = database() and table_name = 'journal_applied_entries' and index_name = 'uk_journal_idempotency_key');
+set @ddl := if(@missing, 'alter table journal_applied_entries add constraint uk_journal_idempotency_key unique (idempotency_key)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
@@ -0,0 +1,32 @@
+-- Creates the V2 and V3 objects where they are missing, for databases baselined past those versions
+-- from a schema ddl-auto created. V2 and V3 themselves are left untouched so their checksums still match.
+
+create table if not exists balance_snapshots (
+    id bigint not null auto_increment,
+    customer_id bigint not null,
+    as_of datetime(6) not null,
+    balance decimal(15,2) not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_balance_snapshot unique (customer_id, as_of)
+) engine=InnoDB;
+
+set @missing := (select count(*) = 0 from information_schema.statistics
+                 where table_schema = database() and table_name = 'transactions' and index_name = 'idx_transactions_customer_time');
+set @ddl := if(@missing, 'create index idx_transactions_customer_time on transactions (customer_id, timestamp)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+create table if not exists journal_applied_entries (
+    id bigint not null auto_increment,
+    journal_id varchar(64) not null,
+    sequence bigint not null,
+    status enum ('APPLIED','REJECTED') not null,
+    message varchar(500),
+    applied_at datetime(6) not null,
+    idempotency_key varchar(120),
+    primary key (id),
+    constraint uk_journal_entry unique (journal_id, sequence),
+    constraint uk_journal_idempotency_key unique (idempotency_key)
+) engine=InnoDB;
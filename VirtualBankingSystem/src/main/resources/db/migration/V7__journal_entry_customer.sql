@@ -0,0 +1,9 @@
+-- The submitting customer of each journal entry, so only they can look up its outcome.
+-- Guarded so it is a no-op where ddl-auto already added the column.
+
+set @missing := (select count(*) = 0 from information_schema.columns
+                 where table_schema = database() and table_name = 'journal_applied_entries' and column_name = 'customer_id');
+set @ddl := if(@missing, 'alter table journal_applied_entries add column customer_id bigint', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
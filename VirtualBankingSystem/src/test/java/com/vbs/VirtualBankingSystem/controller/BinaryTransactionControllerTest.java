@@ -0,0 +1,205 @@
+package com.vbs.VirtualBankingSystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.vbs.VirtualBankingSystem.dto.BinaryResultDTO;
+import com.vbs.VirtualBankingSystem.filter.AdmissionControlFilter;
+import com.vbs.VirtualBankingSystem.filter.SessionTokenFilter;
+import com.vbs.VirtualBankingSystem.journal.JournalService;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.service.BinaryOperationService;
+import com.vbs.VirtualBankingSystem.service.CustomerService;
+import com.vbs.VirtualBankingSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BinaryTransactionControllerTest {
+
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
+    private TransactionService transactionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = mock(TransactionService.class);
+        when(transactionService.depositMoney(anyLong(), any(), any())).thenAnswer(invocation -> {
+            Transaction transaction = new Transaction();
+            transaction.setId(100L + invocation.<Long>getArgument(0));
+            transaction.setBalanceAfterTransaction(invocation.getArgument(1));
+            transaction.setTimestamp(LocalDateTime.now());
+            return transaction;
+        });
+        JournalService journalService = mock(JournalService.class);
+        BinaryOperationService binaryOperationService =
+                new BinaryOperationService(transactionService, mock(CustomerService.class), journalService);
+
+        BinaryTransactionController binaryController = new BinaryTransactionController(binaryOperationService);
+        ReflectionTestUtils.setField(binaryController, "maxBatchOperations", 3);
+        TransactionController jsonController = new TransactionController();
+        ReflectionTestUtils.setField(jsonController, "transactionService", transactionService);
+        ReflectionTestUtils.setField(jsonController, "journalService", journalService);
+        mockMvc = MockMvcBuilders.standaloneSetup(jsonController, binaryController).build();
+    }
+
+    @Test
+    void cborAndJsonRequestsReachTheirOwnHandlers() throws Exception {
+        byte[] body = mockMvc.perform(customer(7L, post("/api/transactions/deposit"))
+                        .contentType(BinaryTransactionController.CBOR)
+                        .accept(BinaryTransactionController.CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(Map.of("customerId", 7, "amount", 5))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(BinaryTransactionController.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        BinaryResultDTO result = CBOR_MAPPER.readValue(body, BinaryResultDTO.class);
+        assertEquals(BinaryResultDTO.Status.OK, result.getStatus());
+        assertEquals(107L, result.getTransactionId());
+
+        mockMvc.perform(customer(7L, post("/api/transactions/deposit"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":7,\"amount\":5}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(107));
+    }
+
+    @Test
+    void operationsForOtherCustomersAreForbidden() throws Exception {
+        mockMvc.perform(customer(7L, post("/api/transactions/deposit"))
+                        .contentType(BinaryTransactionController.CBOR)
+                        .accept(BinaryTransactionController.CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(Map.of("customerId", 8, "amount", 5))))
+                .andExpect(status().isForbidden());
+
+        List<BinaryResultDTO> results = batch(customer(7L, post("/api/transactions/batch")),
+                deposit(1, 7), deposit(2, 8), deposit(3, 7));
+
+        assertEquals(List.of(BinaryResultDTO.Status.OK, BinaryResultDTO.Status.FORBIDDEN, BinaryResultDTO.Status.OK),
+                results.stream().map(BinaryResultDTO::getStatus).toList());
+        assertEquals(2L, results.get(1).getRef());
+        verify(transactionService, never()).depositMoney(8L, BigDecimal.valueOf(5), null);
+    }
+
+    @Test
+    void serviceClientsActForAnyCustomer() throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/transactions/batch")
+                .requestAttr(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE, Boolean.TRUE);
+
+        List<BinaryResultDTO> results = batch(request, deposit(1, 7), deposit(2, 8));
+
+        assertEquals(List.of(BinaryResultDTO.Status.OK, BinaryResultDTO.Status.OK),
+                results.stream().map(BinaryResultDTO::getStatus).toList());
+    }
+
+    @Test
+    void batchStopsAtTheOperationLimit() throws Exception {
+        List<BinaryResultDTO> results = batch(customer(7L, post("/api/transactions/batch")),
+                deposit(1, 7), deposit(2, 7), deposit(3, 7), deposit(4, 7), deposit(5, 7));
+
+        assertEquals(4, results.size());
+        assertEquals(BinaryResultDTO.Status.ERROR, results.get(3).getStatus());
+        assertEquals(4L, results.get(3).getRef());
+        assertEquals("Batch is limited to 3 operations", results.get(3).getError());
+    }
+
+    @Test
+    void batchStopsWhenTheQuotaRunsOut() throws Exception {
+        int[] tokens = {1};
+        BooleanSupplier quota = () -> tokens[0]-- > 0;
+        MockHttpServletRequestBuilder request = customer(7L, post("/api/transactions/batch"))
+                .requestAttr(AdmissionControlFilter.OPERATION_QUOTA_ATTRIBUTE, quota);
+
+        List<BinaryResultDTO> results = batch(request, deposit(1, 7), deposit(2, 7), deposit(3, 7));
+
+        assertEquals(3, results.size());
+        assertEquals(BinaryResultDTO.Status.OK, results.get(1).getStatus());
+        assertEquals("Rate limit exceeded, retry later", results.get(2).getError());
+    }
+
+    @Test
+    void malformedItemGetsItsOwnErrorAndTheBatchGoesOn() throws Exception {
+        Map<String, Object> malformed = Map.of("op", "DEPOSIT", "ref", 2, "customerId", 7, "amount", "lots");
+
+        List<BinaryResultDTO> results = batch(customer(7L, post("/api/transactions/batch")),
+                deposit(1, 7), malformed, deposit(3, 7));
+
+        assertEquals(List.of(BinaryResultDTO.Status.OK, BinaryResultDTO.Status.ERROR, BinaryResultDTO.Status.OK),
+                results.stream().map(BinaryResultDTO::getStatus).toList());
+        assertNull(results.get(1).getRef());
+        assertEquals(3L, results.get(2).getRef());
+    }
+
+    @Test
+    void brokenEncodingEndsTheBatchWithAnError() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(CBOR_MAPPER.writeValueAsBytes(deposit(1, 7)));
+        // Initial byte 0x1c uses a reserved additional-information value
+        body.write(0x1c);
+        body.write(CBOR_MAPPER.writeValueAsBytes(deposit(3, 7)));
+
+        List<BinaryResultDTO> results = results(mockMvc.perform(customer(7L, post("/api/transactions/batch"))
+                        .contentType(BinaryTransactionController.CBOR_SEQUENCE)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+
+        assertEquals(2, results.size());
+        assertEquals(BinaryResultDTO.Status.OK, results.get(0).getStatus());
+        assertEquals(BinaryResultDTO.Status.ERROR, results.get(1).getStatus());
+        verify(transactionService, times(1)).depositMoney(anyLong(), any(), any());
+    }
+
+    @SafeVarargs
+    private List<BinaryResultDTO> batch(MockHttpServletRequestBuilder request, Map<String, Object>... operations)
+            throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Map<String, Object> operation : operations) {
+            body.write(CBOR_MAPPER.writeValueAsBytes(operation));
+        }
+        byte[] response = mockMvc.perform(request
+                        .contentType(BinaryTransactionController.CBOR_SEQUENCE)
+                        .accept(BinaryTransactionController.CBOR_SEQUENCE)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return results(response);
+    }
+
+    private static List<BinaryResultDTO> results(byte[] response) throws Exception {
+        return CBOR_MAPPER.readerFor(BinaryResultDTO.class).<BinaryResultDTO>readValues(response).readAll();
+    }
+
+    private static Map<String, Object> deposit(long ref, long customerId) {
+        return Map.of("op", "DEPOSIT", "ref", ref, "customerId", customerId, "amount", 5);
+    }
+
+    private static MockHttpServletRequestBuilder customer(long customerId, MockHttpServletRequestBuilder request) {
+        return request.requestAttr(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, customerId);
+    }
+}
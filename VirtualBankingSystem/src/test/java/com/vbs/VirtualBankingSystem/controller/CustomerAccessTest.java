@@ -0,0 +1,38 @@
+package com.vbs.VirtualBankingSystem.controller;
+
+import com.vbs.VirtualBankingSystem.filter.SessionTokenFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerAccessTest {
+
+    @Test
+    void tokenHoldersOnlyReachTheirOwnCustomer() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, 7L);
+        assertTrue(CustomerAccess.isAllowed(request, 7L));
+        assertFalse(CustomerAccess.isAllowed(request, 8L));
+        assertFalse(CustomerAccess.isAllowed(request, null));
+    }
+
+    @Test
+    void requestsWithoutATokenNeedTheFilterToAllowThem() {
+        MockHttpServletRequest unchecked = new MockHttpServletRequest();
+        assertFalse(CustomerAccess.isAllowed(unchecked, 7L));
+
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+        anonymous.setAttribute(SessionTokenFilter.ANONYMOUS_ATTRIBUTE, Boolean.TRUE);
+        assertTrue(CustomerAccess.isAllowed(anonymous, 7L));
+    }
+
+    @Test
+    void serviceClientsReachEveryCustomer() {
+        MockHttpServletRequest service = new MockHttpServletRequest();
+        service.setAttribute(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE, Boolean.TRUE);
+        assertTrue(CustomerAccess.isAllowed(service, 7L));
+        assertTrue(CustomerAccess.isAllowed(service, 8L));
+    }
+}
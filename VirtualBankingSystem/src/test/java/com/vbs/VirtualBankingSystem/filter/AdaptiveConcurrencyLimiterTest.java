@@ -0,0 +1,78 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The limiter closes sample windows on the wall clock, so the adaptation tests sleep through a
+ * handful of 100 ms windows.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void lowPriorityRequestsOnlyGetTheirShare() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.5);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(false));
+        }
+        assertFalse(limiter.tryAcquire(false));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(true));
+        }
+        assertFalse(limiter.tryAcquire(true));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void releaseFreesCapacity() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.0);
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire(true));
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.0);
+
+        runWindows(limiter, 5, TimeUnit.MILLISECONDS.toNanos(2));
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit " + grown);
+
+        runWindows(limiter, 5, TimeUnit.MILLISECONDS.toNanos(20));
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown, "limit " + shrunk + " after " + grown);
+    }
+
+    @Test
+    void staysWithinConfiguredBounds() throws InterruptedException {
+        AdaptiveConcurrencyLimiter growing = new AdaptiveConcurrencyLimiter(5, 4, 6, 1.0);
+        runWindows(growing, 4, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(6, growing.getLimit());
+
+        AdaptiveConcurrencyLimiter shrinking = new AdaptiveConcurrencyLimiter(100, 90, 100, 1.0);
+        runWindows(shrinking, 1, TimeUnit.MILLISECONDS.toNanos(1));
+        runWindows(shrinking, 4, TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(90, shrinking.getLimit());
+    }
+
+    // Each window: enough samples at the given latency, then a release after the window has elapsed
+    private static void runWindows(AdaptiveConcurrencyLimiter limiter, int windows, long rttNanos)
+            throws InterruptedException {
+        for (int w = 0; w < windows; w++) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(limiter.tryAcquire(true));
+                limiter.release(rttNanos);
+            }
+            Thread.sleep(110);
+            assertTrue(limiter.tryAcquire(true));
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(properties());
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void unauthenticatedCallersAreKeyedByAddressNotByClaimedCustomer() throws Exception {
+        assertEquals(200, deposit("10.0.0.1", null, "1"));
+        // A different claimed customer from the same address shares the bucket
+        assertEquals(429, deposit("10.0.0.1", null, "2"));
+        assertEquals(200, deposit("10.0.0.2", null, "2"));
+    }
+
+    @Test
+    void authenticatedCallersAreKeyedByTheirToken() throws Exception {
+        assertEquals(200, deposit("10.0.0.1", 1L, null));
+        assertEquals(200, deposit("10.0.0.1", 2L, null));
+        assertEquals(429, deposit("10.0.0.3", 1L, null));
+    }
+
+    @Test
+    void forwardedForIsOnlyReadFromTrustedProxies() {
+        AdmissionControlProperties properties = properties();
+        properties.setTrustedProxies(List.of("10.1.0.1", "10.1.0.2"));
+        AdmissionControlFilter proxiedFilter = new AdmissionControlFilter(properties);
+        try {
+            MockHttpServletRequest viaProxy = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+            viaProxy.setRemoteAddr("10.1.0.1");
+            viaProxy.addHeader("X-Forwarded-For", "6.6.6.6, 203.0.113.7");
+            viaProxy.addHeader("X-Forwarded-For", "10.1.0.2");
+            assertEquals("203.0.113.7", proxiedFilter.clientAddress(viaProxy));
+
+            MockHttpServletRequest direct = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+            direct.setRemoteAddr("198.51.100.4");
+            direct.addHeader("X-Forwarded-For", "203.0.113.7");
+            assertEquals("198.51.100.4", proxiedFilter.clientAddress(direct));
+
+            MockHttpServletRequest noHeader = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+            noHeader.setRemoteAddr("10.1.0.1");
+            assertEquals("10.1.0.1", proxiedFilter.clientAddress(noHeader));
+        } finally {
+            proxiedFilter.destroy();
+        }
+    }
+
+    @Test
+    void requestsShedByTheConcurrencyLimitKeepTheirQuota() throws Exception {
+        AdmissionControlProperties properties = properties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        AdmissionControlFilter limitedFilter = new AdmissionControlFilter(properties);
+        try {
+            MockHttpServletResponse shed = new MockHttpServletResponse();
+            MockHttpServletRequest outer = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+            outer.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, 1L);
+            // The only slot is held by the outer request while the inner one arrives
+            limitedFilter.doFilter(outer, new MockHttpServletResponse(), (req, res) ->
+                    limitedFilter.doFilter(customerDeposit(2L), shed, new MockFilterChain()));
+            assertEquals(503, shed.getStatus());
+
+            MockHttpServletResponse retried = new MockHttpServletResponse();
+            limitedFilter.doFilter(customerDeposit(2L), retried, new MockFilterChain());
+            assertEquals(200, retried.getStatus());
+        } finally {
+            limitedFilter.destroy();
+        }
+    }
+
+    @Test
+    void batchOperationsDrawFromTheSameBucket() throws Exception {
+        AdmissionControlProperties properties = properties();
+        properties.setWriteBurst(3);
+        AdmissionControlFilter batchFilter = new AdmissionControlFilter(properties);
+        try {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/batch");
+            request.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, 1L);
+            batchFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            BooleanSupplier quota = (BooleanSupplier) request.getAttribute(AdmissionControlFilter.OPERATION_QUOTA_ATTRIBUTE);
+            assertTrue(quota.getAsBoolean());
+            assertTrue(quota.getAsBoolean());
+            assertFalse(quota.getAsBoolean());
+        } finally {
+            batchFilter.destroy();
+        }
+    }
+
+    @Test
+    void serviceClientsHaveTheirOwnQuota() throws Exception {
+        AdmissionControlProperties properties = properties();
+        properties.setServiceWriteBurst(3);
+        AdmissionControlFilter serviceFilter = new AdmissionControlFilter(properties);
+        try {
+            int admitted = 0;
+            for (int i = 0; i < 5; i++) {
+                MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+                request.setRemoteAddr("10.0.0." + i);
+                request.setAttribute(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE, Boolean.TRUE);
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                serviceFilter.doFilter(request, response, new MockFilterChain());
+                admitted += response.getStatus() == 200 ? 1 : 0;
+            }
+            assertEquals(3, admitted);
+            // Customers keep their own buckets
+            MockHttpServletResponse customer = new MockHttpServletResponse();
+            serviceFilter.doFilter(customerDeposit(1L), customer, new MockFilterChain());
+            assertEquals(200, customer.getStatus());
+        } finally {
+            serviceFilter.destroy();
+        }
+    }
+
+    @Test
+    void moneyMovementIsRecognizedOnTheDecodedPath() throws Exception {
+        long customerId = 1;
+        for (String uri : new String[]{"/api/transactions/batch;x", "/api/transactions/%62atch"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+            request.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, customerId++);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertTrue(request.getAttribute(AdmissionControlFilter.OPERATION_QUOTA_ATTRIBUTE) instanceof BooleanSupplier);
+        }
+    }
+
+    @Test
+    void readsGetNoOperationQuota() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/customer/1");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(request.getAttribute(AdmissionControlFilter.OPERATION_QUOTA_ATTRIBUTE));
+    }
+
+    @Test
+    void sweepDropsBucketsThatHaveRefilled() throws Exception {
+        deposit("10.0.0.1", null, null);
+        assertEquals(1, filter.trackedKeys());
+        Thread.sleep(1100);
+        filter.evictIdleBuckets();
+        assertEquals(0, filter.trackedKeys());
+    }
+
+    private int deposit(String address, Long authenticated, String claimedCustomer) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setRemoteAddr(address);
+        if (authenticated != null) {
+            request.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, authenticated);
+        }
+        if (claimedCustomer != null) {
+            request.addHeader("X-Customer-Id", claimedCustomer);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest customerDeposit(Long customerId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE, customerId);
+        return request;
+    }
+
+    private static AdmissionControlProperties properties() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setWriteRate(1);
+        properties.setWriteBurst(1);
+        return properties;
+    }
+}
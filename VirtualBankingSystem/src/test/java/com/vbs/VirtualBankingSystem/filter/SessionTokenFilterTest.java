@@ -0,0 +1,130 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import com.vbs.VirtualBankingSystem.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionTokenFilterTest {
+
+    private static final String ADMIN_KEY = "operator-secret";
+    private static final String SERVICE_KEY = "settlement-secret";
+
+    private final SessionTokenService tokens = new SessionTokenService(new AuthProperties());
+    private final SessionTokenFilter filter = new SessionTokenFilter(tokens, false, ADMIN_KEY, SERVICE_KEY);
+
+    @Test
+    void attachesTheAuthenticatedCustomer() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/customers/7/balance", tokens.issue(7L));
+        assertEquals(200, run(filter, request));
+        assertEquals(7L, request.getAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE));
+    }
+
+    @Test
+    void rejectsAnotherCustomersUrl() throws Exception {
+        assertEquals(403, run(filter, request("GET", "/api/customers/8/balance", tokens.issue(7L))));
+        assertEquals(403, run(filter, request("GET", "/api/transactions/customer/8/passbook", tokens.issue(7L))));
+        assertEquals(403, run(filter, request("GET", "/api/transactions/debug/customer/8", tokens.issue(7L))));
+        assertEquals(403, run(filter, request("GET", "/api/scheduled-transfers/customer/8", tokens.issue(7L))));
+    }
+
+    @Test
+    void checksTheDecodedPathSpringRoutesOn() throws Exception {
+        String customerToken = tokens.issue(7L);
+        assertEquals(403, run(filter, request("GET", "/api/customers/8;a=b/balance", customerToken)));
+        assertEquals(403, run(filter, request("GET", "/api/customers/%38/balance", customerToken)));
+        assertEquals(403, run(filter, request("GET", "/api//customers/8/balance", customerToken)));
+        assertEquals(403, run(filter, request("POST", "/api/customers/import;x", customerToken)));
+        assertEquals(403, run(filter, request("POST", "/api/customers/%69mport", customerToken)));
+        assertEquals(403, run(filter, request("POST", "/api/transactions/search-index/rebuild;jsessionid=1", null)));
+    }
+
+    @Test
+    void oversizedPathIdsAreNotParsed() throws Exception {
+        assertEquals(200, run(filter, request("GET", "/api/customers/99999999999999999999999", tokens.issue(7L))));
+    }
+
+    @Test
+    void rejectsInvalidTokens() throws Exception {
+        assertEquals(401, run(filter, request("GET", "/api/customers/7", "garbage")));
+        assertEquals(401, run(filter, request("GET", "/api/customers/7", tokens.issue(7L) + "x")));
+    }
+
+    @Test
+    void missingTokenOnlyRejectedWhenRequired() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/customers/7", null);
+        assertEquals(200, run(filter, request));
+        assertNull(request.getAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE));
+        assertEquals(Boolean.TRUE, request.getAttribute(SessionTokenFilter.ANONYMOUS_ATTRIBUTE));
+
+        SessionTokenFilter strict = new SessionTokenFilter(tokens, true, ADMIN_KEY, SERVICE_KEY);
+        assertEquals(401, run(strict, request("GET", "/api/customers/7", null)));
+        assertEquals(200, run(strict, request("POST", "/api/customers/login", null)));
+    }
+
+    @Test
+    void operatorEndpointsNeedTheAdminKey() throws Exception {
+        String customerToken = tokens.issue(7L);
+        assertEquals(403, run(filter, request("POST", "/api/customers/import", customerToken)));
+        assertEquals(403, run(filter, request("POST", "/api/customers/7/striping", customerToken)));
+        assertEquals(403, run(filter, request("POST", "/api/transactions/search-index/rebuild", customerToken)));
+
+        MockHttpServletRequest admin = request("POST", "/api/transactions/search-index/rebuild", null);
+        admin.addHeader(SessionTokenFilter.ADMIN_KEY_HEADER, "wrong");
+        assertEquals(403, run(filter, admin));
+
+        admin = request("POST", "/api/customers/7/striping", null);
+        admin.addHeader(SessionTokenFilter.ADMIN_KEY_HEADER, ADMIN_KEY);
+        assertEquals(200, run(filter, admin));
+    }
+
+    @Test
+    void operatorEndpointsAreClosedWithoutAConfiguredKey() throws Exception {
+        SessionTokenFilter unconfigured = new SessionTokenFilter(tokens, false, "", "");
+        MockHttpServletRequest request = request("POST", "/api/customers/import", null);
+        request.addHeader(SessionTokenFilter.ADMIN_KEY_HEADER, "");
+        assertEquals(403, run(unconfigured, request));
+    }
+
+    @Test
+    void serviceKeyActsForAnyCustomerOnTransactionEndpoints() throws Exception {
+        SessionTokenFilter strict = new SessionTokenFilter(tokens, true, ADMIN_KEY, SERVICE_KEY);
+        MockHttpServletRequest batch = service("POST", "/api/transactions/batch", SERVICE_KEY);
+        assertEquals(200, run(strict, batch));
+        assertEquals(Boolean.TRUE, batch.getAttribute(SessionTokenFilter.SERVICE_CLIENT_ATTRIBUTE));
+        assertNull(batch.getAttribute(SessionTokenFilter.CUSTOMER_ID_ATTRIBUTE));
+        assertEquals(200, run(strict, service("GET", "/api/transactions/customer/8/passbook", SERVICE_KEY)));
+
+        assertEquals(403, run(strict, service("POST", "/api/transactions/batch", "wrong")));
+        assertEquals(403, run(strict, service("GET", "/api/customers/8/balance", SERVICE_KEY)));
+        assertEquals(403, run(strict, service("POST", "/api/transactions/search-index/rebuild", SERVICE_KEY)));
+        SessionTokenFilter unconfigured = new SessionTokenFilter(tokens, true, ADMIN_KEY, "");
+        assertEquals(403, run(unconfigured, service("POST", "/api/transactions/batch", "")));
+    }
+
+    private static MockHttpServletRequest service(String method, String uri, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(SessionTokenFilter.SERVICE_KEY_HEADER, key);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static int run(SessionTokenFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
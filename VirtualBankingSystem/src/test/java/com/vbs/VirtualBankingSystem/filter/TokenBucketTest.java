@@ -0,0 +1,65 @@
+package com.vbs.VirtualBankingSystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void admitsABurstThenRejectsWithTheTimeUntilTheNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(START));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(START));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+        assertEquals(0, bucket.tryAcquire(START));
+        assertTrue(bucket.tryAcquire(START + SECOND / 20) > 0);
+        assertEquals(0, bucket.tryAcquire(START + SECOND / 10));
+    }
+
+    @Test
+    void sustainedRateNeverExceedsTheLimit() {
+        TokenBucket bucket = new TokenBucket(100, 10, START);
+        int admitted = 0;
+        // One attempt per millisecond for ten seconds
+        for (long now = START; now < START + 10 * SECOND; now += TimeUnit.MILLISECONDS.toNanos(1)) {
+            if (bucket.tryAcquire(now) == 0) {
+                admitted++;
+            }
+        }
+        assertTrue(admitted <= 100 * 10 + 10, "admitted " + admitted);
+        assertTrue(admitted >= 100 * 10, "admitted " + admitted);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1, START);
+        assertEquals(0, bucket.tryAcquire(START));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire(START + i) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(START + SECOND));
+    }
+
+    @Test
+    void isIdleOnceFullAgain() {
+        TokenBucket bucket = new TokenBucket(10, 3, START);
+        assertTrue(bucket.isIdle(START));
+        bucket.tryAcquire(START);
+        assertFalse(bucket.isIdle(START));
+        assertTrue(bucket.isIdle(START + SECOND / 10));
+    }
+}
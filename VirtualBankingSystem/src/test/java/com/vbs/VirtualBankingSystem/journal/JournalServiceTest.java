@@ -0,0 +1,73 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import com.vbs.VirtualBankingSystem.model.JournalAppliedEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JournalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final JournalApplier applier = mock(JournalApplier.class);
+    private final JournalService service = new JournalService(applier);
+
+    @BeforeEach
+    void setUp() {
+        when(applier.getJournalId()).thenReturn("node-a");
+        when(applier.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "segmentBytes", 1 << 20);
+        ReflectionTestUtils.setField(service, "groupCommitMaxEntries", 16);
+        ReflectionTestUtils.setField(service, "groupCommitMaxDelayMicros", 100L);
+        ReflectionTestUtils.setField(service, "applyBatchSize", 16);
+        ReflectionTestUtils.setField(service, "maxPending", 1000);
+        ReflectionTestUtils.setField(service, "ackTimeoutMs", 5000L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.stop();
+    }
+
+    @Test
+    void newEntriesAreAcknowledgedWithThisJournal() {
+        JournalReceipt receipt = service.submit(JournalEntry.Type.DEPOSIT, 7L, null, new BigDecimal("5.00"), null, "k1");
+
+        assertEquals("node-a", receipt.journalId());
+        assertEquals(1L, receipt.sequence());
+    }
+
+    @Test
+    void keyRecordedByAnotherNodeIsAnsweredWithThatNodesJournal() {
+        JournalAppliedEntry recorded = new JournalAppliedEntry();
+        recorded.setJournalId("node-b");
+        recorded.setSequence(42L);
+        recorded.setCustomerId(7L);
+        recorded.setStatus(JournalAppliedEntry.Status.APPLIED);
+        recorded.setAppliedAt(LocalDateTime.now());
+        when(applier.findByIdempotencyKey("7:k2")).thenReturn(Optional.of(recorded));
+        when(applier.findOutcome("node-b", 42L)).thenReturn(Optional.of(recorded));
+
+        JournalReceipt receipt = service.submit(JournalEntry.Type.DEPOSIT, 7L, null, new BigDecimal("5.00"), null, "k2");
+
+        assertEquals("node-b", receipt.journalId());
+        assertEquals(42L, receipt.sequence());
+        assertEquals(new JournalService.EntryStatus("APPLIED", 7L), service.getStatus("node-b", 42L).orElseThrow());
+    }
+}
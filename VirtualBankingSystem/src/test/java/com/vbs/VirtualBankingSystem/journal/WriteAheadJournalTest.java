@@ -0,0 +1,278 @@
+package com.vbs.VirtualBankingSystem.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Crash behaviour of the journal: a writer process killed with SIGKILL mid group commit, a torn
+ * record at the tail, and an apply batch that dies halfway and is replayed on restart.
+ */
+class WriteAheadJournalTest {
+
+    private static final long SMALL_SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyAcknowledgedEntrySurvivesKillingTheWriterProcess() throws Exception {
+        Process writer = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                AppendingProcess.class.getName(), directory.toString())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+        CountDownLatch enough = new CountDownLatch(3000);
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(writer.getInputStream()))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.startsWith("ACK ")) {
+                        acknowledged.add(Long.parseLong(line.substring(4)));
+                        enough.countDown();
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closes when the process dies
+            }
+        });
+        reader.start();
+
+        assertTrue(enough.await(60, TimeUnit.SECONDS), "writer process acknowledged too few entries");
+        writer.destroyForcibly();
+        writer.waitFor(10, TimeUnit.SECONDS);
+        reader.join(TimeUnit.SECONDS.toMillis(10));
+
+        try (WriteAheadJournal journal = open(0)) {
+            List<JournalEntry> recovered = journal.getRecoveredEntries();
+            Set<Long> sequences = new HashSet<>();
+            for (int i = 0; i < recovered.size(); i++) {
+                JournalEntry entry = recovered.get(i);
+                assertEquals(i + 1, entry.sequence());
+                assertEquals(BigDecimal.valueOf(entry.customerId() % 1000 + 1, 2), entry.amount());
+                sequences.add(entry.sequence());
+            }
+            assertTrue(sequences.containsAll(acknowledged), "an acknowledged entry was lost");
+            assertTrue(journal.segmentCount() > 1, "expected segment rotation");
+
+            JournalEntry next = journal.append(JournalEntry.Type.DEPOSIT, 1, null, BigDecimal.ONE, null, null)
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(recovered.size() + 1, next.sequence());
+        }
+    }
+
+    @Test
+    void tornTailIsCutOffOnRecovery() throws Exception {
+        try (WriteAheadJournal journal = open(0)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(JournalEntry.Type.DEPOSIT, i, null, BigDecimal.TEN, "entry " + i, null).get(5, TimeUnit.SECONDS);
+            }
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // Header of a 60 byte record followed by only part of its payload
+            channel.write(ByteBuffer.allocate(20).putInt(60).putInt(12345).flip());
+        }
+
+        try (WriteAheadJournal journal = open(0)) {
+            assertEquals(10, journal.getRecoveredEntries().size());
+            assertEquals("entry 9", journal.getRecoveredEntries().get(9).description());
+            assertEquals(11, journal.append(JournalEntry.Type.DEPOSIT, 1, null, BigDecimal.ONE, null, null)
+                    .get(5, TimeUnit.SECONDS).sequence());
+        }
+        try (WriteAheadJournal journal = open(0)) {
+            assertEquals(11, journal.getRecoveredEntries().size());
+        }
+    }
+
+    @Test
+    void idempotencyKeysSurviveRecovery() throws Exception {
+        try (WriteAheadJournal journal = open(0)) {
+            journal.append(JournalEntry.Type.DEPOSIT, 1, null, BigDecimal.ONE, "keyed", "1:retry-me").get(5, TimeUnit.SECONDS);
+            journal.append(JournalEntry.Type.DEPOSIT, 1, null, BigDecimal.ONE, null, null).get(5, TimeUnit.SECONDS);
+        }
+
+        try (WriteAheadJournal journal = open(0)) {
+            List<JournalEntry> recovered = journal.getRecoveredEntries();
+            assertEquals("1:retry-me", recovered.get(0).idempotencyKey());
+            assertEquals("keyed", recovered.get(0).description());
+            assertNull(recovered.get(1).idempotencyKey());
+        }
+    }
+
+    @Test
+    void sequencesNeverGoBelowWhatWasAlreadyApplied() throws Exception {
+        try (WriteAheadJournal journal = open(500)) {
+            assertEquals(500, journal.append(JournalEntry.Type.DEPOSIT, 1, null, BigDecimal.ONE, null, null)
+                    .get(5, TimeUnit.SECONDS).sequence());
+        }
+        try (WriteAheadJournal journal = open(0)) {
+            assertEquals(501, journal.getNextSequence());
+        }
+    }
+
+    @Test
+    void batchKilledMidApplyIsReplayedExactlyOnce() throws Exception {
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        try (WriteAheadJournal journal = open(0)) {
+            for (int i = 0; i < 1000; i++) {
+                long customerId = i % 7;
+                BigDecimal amount = BigDecimal.valueOf(i + 1, 2);
+                journal.append(JournalEntry.Type.DEPOSIT, customerId, null, amount, null, null).get(5, TimeUnit.SECONDS);
+                expected.merge(customerId, amount, BigDecimal::add);
+            }
+        }
+
+        Database database = new Database();
+        try (WriteAheadJournal journal = open(0)) {
+            List<JournalEntry> entries = journal.getRecoveredEntries();
+            CrashingSink sink = new CrashingSink(database, 4, 37);
+            assertThrows(SimulatedCrash.class, () -> {
+                for (int from = 0; from < entries.size(); from += 100) {
+                    List<JournalEntry> batch = entries.subList(from, Math.min(entries.size(), from + 100));
+                    sink.applyOnce(batch);
+                    journal.truncateThrough(batch.get(batch.size() - 1).sequence());
+                }
+            });
+            assertEquals(400, database.applied.size());
+        }
+
+        // Restart: replay whatever is left in the journal against the surviving database state
+        try (WriteAheadJournal journal = open(0)) {
+            List<JournalEntry> entries = journal.getRecoveredEntries();
+            assertTrue(entries.get(0).sequence() <= 401, "unapplied entries were truncated");
+            CrashingSink sink = new CrashingSink(database, -1, 0);
+            for (int from = 0; from < entries.size(); from += 100) {
+                sink.applyOnce(entries.subList(from, Math.min(entries.size(), from + 100)));
+            }
+        }
+
+        assertEquals(1000, database.applied.size());
+        assertEquals(expected, database.balances);
+    }
+
+    private WriteAheadJournal open(long minNextSequence) throws IOException {
+        return new WriteAheadJournal(directory, SMALL_SEGMENT_BYTES, 64, 200, minNextSequence, entries -> {
+        });
+    }
+
+    // Committed state; a batch lands all at once or not at all, like a database transaction
+    private static class Database {
+        private final Set<Long> applied = new HashSet<>();
+        private final Map<Long, BigDecimal> balances = new HashMap<>();
+    }
+
+    private static class SimulatedCrash extends RuntimeException {
+    }
+
+    private static class CrashingSink implements JournalSink {
+        private final Database database;
+        private final int crashInBatch;
+        private final int crashAfterEntries;
+        private int batches;
+
+        CrashingSink(Database database, int crashInBatch, int crashAfterEntries) {
+            this.database = database;
+            this.crashInBatch = crashInBatch;
+            this.crashAfterEntries = crashAfterEntries;
+        }
+
+        @Override
+        public Set<Long> findApplied(long fromSequence, long toSequence) {
+            Set<Long> found = new HashSet<>();
+            for (long sequence : database.applied) {
+                if (sequence >= fromSequence && sequence <= toSequence) {
+                    found.add(sequence);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void apply(List<JournalEntry> entries) {
+            Set<Long> applied = new HashSet<>(database.applied);
+            Map<Long, BigDecimal> balances = new HashMap<>(database.balances);
+            int batch = batches++;
+            for (int i = 0; i < entries.size(); i++) {
+                if (batch == crashInBatch && i == crashAfterEntries) {
+                    throw new SimulatedCrash();
+                }
+                JournalEntry entry = entries.get(i);
+                if (!applied.add(entry.sequence())) {
+                    throw new IllegalStateException("entry " + entry.sequence() + " applied twice");
+                }
+                balances.merge(entry.customerId(), entry.amount(), BigDecimal::add);
+            }
+            database.applied.clear();
+            database.applied.addAll(applied);
+            database.balances.clear();
+            database.balances.putAll(balances);
+        }
+    }
+
+    /**
+     * Child process for the kill test: appends from several threads and prints each acknowledged
+     * sequence until it is killed.
+     */
+    public static class AppendingProcess {
+        public static void main(String[] args) throws Exception {
+            WriteAheadJournal journal = new WriteAheadJournal(Path.of(args[0]), SMALL_SEGMENT_BYTES, 64, 200, 0,
+                    entries -> {
+                    });
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long base = t * 1_000_000L;
+                Thread thread = new Thread(() -> {
+                    for (long i = 0; ; i++) {
+                        long customerId = base + i;
+                        try {
+                            JournalEntry entry = journal.append(JournalEntry.Type.DEPOSIT, customerId, null,
+                                    BigDecimal.valueOf(customerId % 1000 + 1, 2), "deposit " + i, null).get();
+                            synchronized (System.out) {
+                                System.out.println("ACK " + entry.sequence());
+                                System.out.flush();
+                            }
+                        } catch (Exception e) {
+                            return;
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.vbs.VirtualBankingSystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScheduledTransferTest {
+
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 9, 0);
+
+    @Test
+    void monthlyScheduleReturnsToItsAnchorDayAfterShortMonths() {
+        LocalDateTime occurrence = JAN_31;
+        LocalDateTime[] expected = {
+                LocalDateTime.of(2025, 2, 28, 9, 0),
+                LocalDateTime.of(2025, 3, 31, 9, 0),
+                LocalDateTime.of(2025, 4, 30, 9, 0),
+                LocalDateTime.of(2025, 5, 31, 9, 0),
+        };
+        for (LocalDateTime next : expected) {
+            occurrence = ScheduledTransfer.Frequency.MONTHLY.next(JAN_31, occurrence);
+            assertEquals(next, occurrence);
+        }
+    }
+
+    @Test
+    void monthlyScheduleRecoversFromAlreadyDriftedOccurrence() {
+        LocalDateTime drifted = LocalDateTime.of(2025, 3, 28, 9, 0);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), ScheduledTransfer.Frequency.MONTHLY.next(JAN_31, drifted));
+    }
+
+    @Test
+    void dailyAndWeeklyStepFromTheAnchor() {
+        assertEquals(JAN_31.plusDays(1), ScheduledTransfer.Frequency.DAILY.next(JAN_31, JAN_31));
+        assertEquals(JAN_31.plusWeeks(3), ScheduledTransfer.Frequency.WEEKLY.next(JAN_31, JAN_31.plusWeeks(2)));
+    }
+
+    @Test
+    void onceHasNoNextOccurrence() {
+        assertNull(ScheduledTransfer.Frequency.ONCE.next(JAN_31, JAN_31));
+    }
+}
@@ -0,0 +1,209 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.BalanceAsOfDTO;
+import com.vbs.VirtualBankingSystem.model.BalanceSnapshot;
+import com.vbs.VirtualBankingSystem.model.Transaction;
+import com.vbs.VirtualBankingSystem.repository.BalanceSnapshotRepository;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import com.vbs.VirtualBankingSystem.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks snapshot-plus-delta balances against a full replay of the ledger, using in-memory
+ * repositories so no database is needed. Snapshots are planned with the same
+ * {@link BalanceSnapshotService#dueSnapshots} the background job uses for each customer.
+ */
+class BalanceSnapshotServiceTest {
+
+    private static final Long CUSTOMER_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final List<Transaction> ledger = new ArrayList<>();
+    private final TreeMap<LocalDateTime, BalanceSnapshot> snapshots = new TreeMap<>();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private BalanceSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        BalanceSnapshotRepository snapshotRepository = mock(BalanceSnapshotRepository.class);
+        CustomerRepository customerRepository = mock(CustomerRepository.class);
+
+        when(customerRepository.existsById(CUSTOMER_ID)).thenReturn(true);
+        when(transactionRepository.findCustomerTransactionsUpTo(any(), any())).thenAnswer(call -> {
+            LocalDateTime upTo = call.getArgument(1);
+            return ledger.stream().filter(t -> !t.getTimestamp().isAfter(upTo)).toList();
+        });
+        when(transactionRepository.findCustomerTransactionsBetween(any(), any(), any())).thenAnswer(call -> {
+            LocalDateTime after = call.getArgument(1);
+            LocalDateTime upTo = call.getArgument(2);
+            return ledger.stream()
+                    .filter(t -> t.getTimestamp().isAfter(after) && !t.getTimestamp().isAfter(upTo))
+                    .toList();
+        });
+        when(snapshotRepository.findFirstByCustomerIdAndAsOfLessThanEqualOrderByAsOfDesc(anyLong(), any()))
+                .thenAnswer(call -> Optional.ofNullable(snapshots.floorEntry(call.getArgument(1)))
+                        .map(Map.Entry::getValue));
+
+        service = new BalanceSnapshotService(snapshotRepository, transactionRepository, customerRepository,
+                jdbcTemplate, mock(NamedParameterJdbcTemplate.class), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void snapshotPlusDeltaMatchesFullReplay() {
+        Random random = new Random(42);
+        LocalDateTime time = START;
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < 2000; i++) {
+            time = time.plusMinutes(1 + random.nextInt(180));
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50_000), 2);
+            boolean deposit = balance.compareTo(amount) < 0 || random.nextBoolean();
+            balance = deposit ? balance.add(amount) : balance.subtract(amount);
+            ledger.add(transaction(deposit, amount, time));
+        }
+
+        // Daily boundaries with month starts forced, as the background job does
+        for (LocalDateTime day = START; day.isBefore(time); day = day.plusDays(1)) {
+            snapshot(BalanceSnapshotJob.monthStart(day), day);
+        }
+        assertFalse(snapshots.isEmpty());
+
+        for (int i = 0; i < 500; i++) {
+            int minutes = (int) Duration.between(START, time).toMinutes() + 2880;
+            LocalDateTime at = START.minusDays(1).plusMinutes(random.nextInt(minutes));
+            BalanceAsOfDTO result = service.getBalanceAsOf(CUSTOMER_ID, at);
+            assertEquals(0, fullReplay(at).compareTo(result.getBalance()), "balance as of " + at);
+        }
+    }
+
+    @Test
+    void readsReplayOnlyTransactionsAfterTheNearestSnapshot() {
+        ledger.add(transaction(true, new BigDecimal("100.00"), START.plusHours(1)));
+        ledger.add(transaction(false, new BigDecimal("30.00"), START.plusHours(2)));
+        snapshot(START, START.plusDays(1));
+        ledger.add(transaction(true, new BigDecimal("5.50"), START.plusDays(1).plusHours(3)));
+
+        BalanceAsOfDTO result = service.getBalanceAsOf(CUSTOMER_ID, START.plusDays(2));
+
+        assertEquals(new BigDecimal("75.50"), result.getBalance());
+        assertEquals(START.plusDays(1), result.getSnapshotAsOf());
+        assertEquals(1, result.getReplayedTransactions());
+    }
+
+    @Test
+    void periodSnapshotIsSkippedWithoutActivityButMonthStartIsNot() {
+        ledger.add(transaction(true, new BigDecimal("10.00"), START.plusHours(1)));
+        assertEquals(2, snapshot(START, START.plusDays(1)));
+
+        assertEquals(0, snapshot(START, START.plusDays(2)));
+        assertEquals(1, snapshot(START.plusMonths(1), START.plusMonths(1)));
+        assertEquals(0, snapshot(START.plusMonths(1), START.plusMonths(1)));
+        assertEquals(new BigDecimal("10.00"), snapshots.get(START.plusMonths(1)).getBalance());
+    }
+
+    @Test
+    void monthStartOnlyReplaysTransactionsUpToIt() {
+        ledger.add(transaction(true, new BigDecimal("10.00"), START.minusHours(1)));
+        ledger.add(transaction(true, new BigDecimal("2.00"), START.plusHours(1)));
+
+        assertEquals(2, snapshot(START, START.plusDays(1)));
+        assertEquals(new BigDecimal("10.00"), snapshots.get(START).getBalance());
+        assertEquals(new BigDecimal("12.00"), snapshots.get(START.plusDays(1)).getBalance());
+    }
+
+    @Test
+    void lateCommitDropsSnapshotsFromItsTimestamp() {
+        LocalDateTime stamped = START.plusHours(5);
+        service.invalidateAfterCommit(CUSTOMER_ID, stamped);
+
+        verify(jdbcTemplate).update(eq("DELETE FROM balance_snapshots WHERE customer_id = ? AND as_of >= ?"),
+                eq(CUSTOMER_ID), eq(Timestamp.valueOf(stamped)));
+    }
+
+    @Test
+    void failedInvalidationIsRetriedFromTheEarliestTimestamp() {
+        String delete = "DELETE FROM balance_snapshots WHERE customer_id = ? AND as_of >= ?";
+        when(jdbcTemplate.update(eq(delete), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(1);
+        service.invalidateAfterCommit(CUSTOMER_ID, START.plusHours(5));
+        service.invalidateAfterCommit(CUSTOMER_ID, START.plusHours(2));
+
+        assertEquals(1, service.retryFailedInvalidations());
+        // The failed first attempt and the retry; the later timestamp is covered by the earlier one
+        verify(jdbcTemplate, times(2)).update(delete, CUSTOMER_ID, Timestamp.valueOf(START.plusHours(2)));
+        verify(jdbcTemplate, times(1)).update(delete, CUSTOMER_ID, Timestamp.valueOf(START.plusHours(5)));
+        assertEquals(0, service.retryFailedInvalidations());
+    }
+
+    @Test
+    void balanceBeforeAnySnapshotReplaysFromTheStart() {
+        ledger.add(transaction(true, new BigDecimal("20.00"), START.minusHours(2)));
+        snapshot(START, START.plusDays(1));
+
+        BalanceAsOfDTO result = service.getBalanceAsOf(CUSTOMER_ID, START.minusHours(1));
+
+        assertEquals(new BigDecimal("20.00"), result.getBalance());
+        assertNull(result.getSnapshotAsOf());
+    }
+
+    // What the job does for one customer: plan from its latest snapshot and store what is due
+    private int snapshot(LocalDateTime monthStart, LocalDateTime boundary) {
+        BalanceSnapshot latest = Optional.ofNullable(snapshots.floorEntry(boundary)).map(Map.Entry::getValue).orElse(null);
+        List<Transaction> delta = ledger.stream()
+                .filter(t -> latest == null || t.getTimestamp().isAfter(latest.getAsOf()))
+                .filter(t -> !t.getTimestamp().isAfter(boundary))
+                .toList();
+        List<BalanceSnapshot> due = BalanceSnapshotService.dueSnapshots(CUSTOMER_ID, latest, delta, monthStart, boundary);
+        due.forEach(snapshot -> snapshots.putIfAbsent(snapshot.getAsOf(), snapshot));
+        return due.size();
+    }
+
+    private BigDecimal fullReplay(LocalDateTime at) {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (Transaction transaction : ledger) {
+            if (!transaction.getTimestamp().isAfter(at)) {
+                balance = transaction.getType() == Transaction.TransactionType.DEPOSIT
+                        ? balance.add(transaction.getAmount())
+                        : balance.subtract(transaction.getAmount());
+            }
+        }
+        return balance;
+    }
+
+    private static Transaction transaction(boolean deposit, BigDecimal amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setType(deposit ? Transaction.TransactionType.DEPOSIT : Transaction.TransactionType.WITHDRAWAL);
+        transaction.setAmount(amount);
+        transaction.setTimestamp(timestamp);
+        return transaction;
+    }
+}
@@ -0,0 +1,114 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.dto.CustomerSummaryDTO;
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerDirectoryTest {
+
+    private CustomerRepository customerRepository;
+    private CustomerDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        when(customerRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        directory = new CustomerDirectory(mock(JdbcTemplate.class), customerRepository);
+    }
+
+    @Test
+    void mergesTheDeltaIntoTheBaseAtTheThreshold() {
+        for (int i = 0; i < 4095; i++) {
+            directory.add((long) i, String.format("user%05d", i), "User " + i);
+        }
+        assertEquals(4095, directory.pendingSize());
+
+        directory.add(4095L, "user04095", "User 4095");
+
+        assertEquals(0, directory.pendingSize());
+        assertEquals(4096, directory.size());
+        assertEquals(4095L, directory.find("USER04095").orElseThrow().getId());
+    }
+
+    @Test
+    void prefixSearchInterleavesBaseAndDeltaInOrder() {
+        for (int i = 0; i < 4096; i++) {
+            directory.add((long) i, String.format("base%05d", i), "Base " + i);
+        }
+        directory.add(10_000L, "base00010x", "Pending");
+        directory.add(10_001L, "Base00020y", "Pending");
+        assertEquals(2, directory.pendingSize());
+
+        List<String> usernames = directory.searchByPrefix("base0001", 12).stream()
+                .map(CustomerSummaryDTO::getUsername)
+                .toList();
+
+        assertEquals(List.of("base00010", "base00010x", "base00011", "base00012", "base00013",
+                "base00014", "base00015", "base00016", "base00017", "base00018", "base00019"), usernames);
+        assertEquals("Base00020y", directory.searchByPrefix("base0002", 2).get(1).getUsername());
+    }
+
+    @Test
+    void deltaEntryReplacesTheSameUsernameInTheBase() {
+        for (int i = 0; i < 4096; i++) {
+            directory.add((long) i, String.format("name%05d", i), "Old " + i);
+        }
+        directory.add(7L, "NAME00007", "Renamed");
+
+        List<CustomerSummaryDTO> results = directory.searchByPrefix("name0000", 20);
+
+        assertEquals(10, results.size());
+        assertEquals("Renamed", results.get(7).getDisplayName());
+    }
+
+    @Test
+    void missFallsBackToTheDatabaseAndIsRemembered() {
+        Customer customer = new Customer();
+        customer.setId(42L);
+        customer.setUsername("remote");
+        customer.setFirstName("Remote");
+        customer.setLastName("User");
+        when(customerRepository.findByUsername("remote")).thenReturn(Optional.of(customer));
+
+        assertEquals("Remote User", directory.find("remote").orElseThrow().getDisplayName());
+        assertEquals(1, directory.pendingSize());
+
+        directory.find("remote");
+        verify(customerRepository).findByUsername("remote");
+        assertTrue(directory.find("missing").isEmpty());
+    }
+
+    @Test
+    void emptyPrefixSearchFallsBackToTheDatabase() {
+        directory.add(1L, "alice", "Alice A");
+        Customer customer = new Customer();
+        customer.setId(2L);
+        customer.setUsername("bob");
+        customer.setFirstName("Bob");
+        customer.setLastName("B");
+        when(customerRepository.findByUsernameStartingWithOrderByUsername(any(), any(Pageable.class)))
+                .thenReturn(List.of(customer));
+
+        assertEquals("alice", directory.searchByPrefix("al", 5).get(0).getUsername());
+        verify(customerRepository, never()).findByUsernameStartingWithOrderByUsername(any(), any(Pageable.class));
+
+        assertEquals(2L, directory.searchByPrefix("bo", 5).get(0).getId());
+        assertEquals(2L, directory.find("bob").orElseThrow().getId());
+    }
+}
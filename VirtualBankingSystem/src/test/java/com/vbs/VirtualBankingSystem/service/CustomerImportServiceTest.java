@@ -0,0 +1,221 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import com.vbs.VirtualBankingSystem.dto.ImportReportDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV and NDJSON parsing and per-line validation of the bulk import. The database is mocked: no
+ * customer exists yet and every insert succeeds, so the report only reflects what was in the file.
+ */
+@SuppressWarnings("unchecked")
+class CustomerImportServiceTest {
+
+    private static final String HEADER = "username,password,firstName,lastName,email,phoneNumber,balance";
+
+    private final List<String> insertedPasswords = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private CustomerImportService service;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHasher passwordHasher = mock(PasswordHasher.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+        when(passwordHasher.hash(anyString())).thenAnswer(call -> "hashed:" + call.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO customers"),
+                any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(call -> {
+                    Collection<Object> rows = call.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = call.getArgument(3);
+                    for (Object row : rows) {
+                        PreparedStatement ps = mock(PreparedStatement.class);
+                        setter.setValues(ps, row);
+                        ArgumentCaptor<String> password = ArgumentCaptor.forClass(String.class);
+                        verify(ps).setString(eq(2), password.capture());
+                        insertedPasswords.add(password.getValue());
+                    }
+                    return new int[0][];
+                });
+
+        service = new CustomerImportService(jdbcTemplate, mock(NamedParameterJdbcTemplate.class),
+                new ObjectMapper(), mock(CustomerDirectory.class), passwordHasher, transactionManager,
+                mock(TransactionSearchService.class));
+        service.startHashPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopHashPool();
+    }
+
+    @Test
+    void splitsQuotedFieldsWithCommasAndEscapedQuotes() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""),
+                CustomerImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void keepsEmptyFieldsBetweenSeparators() {
+        assertEquals(List.of("", "", ""), CustomerImportService.parseCsvLine(",,"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThrows(RuntimeException.class, () -> CustomerImportService.parseCsvLine("a,\"b"));
+    }
+
+    @Test
+    void importsValidCsvRowsAndReportsBadOnes() {
+        ImportReportDTO report = service.importCsv(stream(
+                HEADER,
+                "alice,pw1,Alice,A,alice@example.com,555-0001,10.50",
+                "",
+                "bob,pw2,Bob,B,bob@example.com,555-0002,",
+                "ALICE,pw3,Al,A,other@example.com,555-0003,0",
+                "carol,pw4,Carol,C,Bob@Example.com,555-0004,0",
+                "dave,pw5,,D,dave@example.com,555-0005,0",
+                "erin,pw6,Erin,E,erin@example.com,555-0006,-1",
+                "frank,pw7,Frank,F,frank@example.com,555-0007,lots",
+                "gina,\"pw8"));
+
+        assertEquals(8, report.getTotalLines());
+        assertEquals(2, report.getImported());
+        assertEquals(6, report.getFailed());
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L),
+                report.getErrors().stream().map(ImportReportDTO.LineErrorDTO::getLine).toList());
+        assertTrue(report.getErrors().get(0).getError().startsWith("Duplicate username in file"));
+        assertTrue(report.getErrors().get(1).getError().startsWith("Duplicate email in file"));
+        assertEquals("Missing required field: firstName", report.getErrors().get(2).getError());
+        assertEquals("Opening balance cannot be negative", report.getErrors().get(3).getError());
+        assertEquals("Unterminated quoted field", report.getErrors().get(5).getError());
+        assertEquals(List.of("hashed:pw1", "hashed:pw2"), insertedPasswords);
+    }
+
+    @Test
+    void keepsPasswordsThatAreAlreadyHashed() {
+        String preHashed = new PasswordHasher(new AuthProperties()).hash("pw");
+        service.importNdjson(stream(
+                "{\"username\":\"alice\",\"password\":\"" + preHashed + "\",\"firstName\":\"Alice\","
+                        + "\"lastName\":\"A\",\"email\":\"alice@example.com\",\"phoneNumber\":\"555\"}",
+                "{\"username\":\"bob\",\"password\":\"pbkdf2$plain\",\"firstName\":\"Bob\","
+                        + "\"lastName\":\"B\",\"email\":\"bob@example.com\",\"phoneNumber\":\"555\"}"));
+
+        assertEquals(List.of(preHashed, "hashed:pbkdf2$plain"), insertedPasswords);
+    }
+
+    @Test
+    void parsesTextualNdjsonBalancesAndRejectsOverPreciseOnes() {
+        ImportReportDTO report = service.importNdjson(stream(
+                ndjson("alice", "\"250.00\""),
+                ndjson("bob", "12.5"),
+                ndjson("carol", "\"1.005\""),
+                ndjson("dave", "\"ten\""),
+                ndjson("erin", "true"),
+                ndjson("frank", "\"12345678901234.00\"")));
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(3L, 4L, 5L, 6L),
+                report.getErrors().stream().map(ImportReportDTO.LineErrorDTO::getLine).toList());
+        assertEquals("Opening balance cannot have more than 2 decimal places", report.getErrors().get(0).getError());
+        assertEquals("Invalid opening balance: ten", report.getErrors().get(1).getError());
+        assertEquals("Opening balance is too large", report.getErrors().get(3).getError());
+    }
+
+    @Test
+    void parsesBalancesToTheColumnScale() {
+        assertEquals(new BigDecimal("250.00"), CustomerImportService.parseBalance("250"));
+        assertEquals(new BigDecimal("1.50"), CustomerImportService.parseBalance("1.500"));
+        assertEquals(BigDecimal.ZERO, CustomerImportService.parseBalance(null));
+        assertThrows(RuntimeException.class, () -> CustomerImportService.parseBalance("0.001"));
+    }
+
+    @Test
+    void onlyUniqueKeyViolationsAreReportedAsDuplicates() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO customers"),
+                any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry"));
+        when(jdbcTemplate.update(startsWith("INSERT INTO customers"), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry 'alice'"))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'phone_number'"));
+
+        ImportReportDTO report = service.importNdjson(stream(ndjson("alice", "1"), ndjson("bob", "1")));
+
+        assertEquals(0, report.getImported());
+        assertEquals("Username or email already exists: alice", report.getErrors().get(0).getError());
+        assertEquals("Rejected by the database: Data too long for column 'phone_number'",
+                report.getErrors().get(1).getError());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumn() {
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> service.importCsv(stream("username,password,firstName,lastName,email")));
+        assertEquals("CSV header is missing column: phoneNumber", error.getMessage());
+    }
+
+    @Test
+    void rejectsEmptyCsv() {
+        assertThrows(RuntimeException.class, () -> service.importCsv(stream()));
+    }
+
+    @Test
+    void importsNdjsonAndReportsMalformedLines() {
+        ImportReportDTO report = service.importNdjson(stream(
+                "{\"username\":\"alice\",\"password\":\"pw\",\"firstName\":\"Alice\",\"lastName\":\"A\","
+                        + "\"email\":\"alice@example.com\",\"phoneNumber\":\"555\",\"balance\":12.25}",
+                "{\"username\":\"bob\",",
+                "{\"username\":\"carol\",\"password\":\"pw\",\"firstName\":\"Carol\",\"lastName\":\"C\","
+                        + "\"email\":\"carol@example.com\",\"phoneNumber\":null}"));
+
+        assertEquals(3, report.getTotalLines());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2L, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getError().startsWith("Malformed JSON"));
+        assertEquals("Missing required field: phoneNumber", report.getErrors().get(1).getError());
+    }
+
+    private static String ndjson(String username, String balance) {
+        return "{\"username\":\"" + username + "\",\"password\":\"pw\",\"firstName\":\"F\",\"lastName\":\"L\","
+                + "\"email\":\"" + username + "@example.com\",\"phoneNumber\":\"555\",\"balance\":" + balance + "}";
+    }
+
+    private static InputStream stream(String... lines) {
+        String body = lines.length == 0 ? "" : String.join("\n", lines) + "\n";
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.model.Customer;
+import com.vbs.VirtualBankingSystem.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CustomerServiceTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerService customerService = new CustomerService(customerRepository, null, null, null, null, null);
+
+    @Test
+    void locksPlainAccountsInAscendingIdOrder() {
+        Customer sender = customer(9L, 0);
+        Customer receiver = customer(3L, 0);
+
+        customerService.lockForBalanceUpdate(sender, receiver);
+
+        InOrder order = inOrder(customerRepository);
+        order.verify(customerRepository).lockForUpdate(receiver);
+        order.verify(customerRepository).lockForUpdate(sender);
+    }
+
+    @Test
+    void leavesStripedAccountsToTheirSlotLocks() {
+        Customer striped = customer(1L, 4);
+
+        customerService.lockForBalanceUpdate(striped);
+
+        verify(customerRepository, never()).lockForUpdate(any());
+    }
+
+    private static Customer customer(Long id, int slots) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setBalanceSlots(slots);
+        return customer;
+    }
+}
@@ -0,0 +1,93 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+    private static final long START_MS = 1_000_000;
+
+    @Test
+    void rejectsEntriesThatAreAlreadyDue() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS);
+        assertFalse(wheel.add(START_MS - 1, "past"));
+        assertFalse(wheel.add(START_MS + TICK_MS - 1, "this tick"));
+        assertTrue(wheel.add(START_MS + TICK_MS, "next tick"));
+    }
+
+    @Test
+    void expiresEntriesOnTheirTickAndNotBefore() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS);
+        wheel.add(START_MS + 30, "a");
+        wheel.add(START_MS + 50, "b");
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START_MS + 29, expired);
+        assertEquals(List.of(), expired);
+        wheel.advance(START_MS + 30, expired);
+        assertEquals(List.of("a"), expired);
+        wheel.advance(START_MS + 49, expired);
+        assertEquals(List.of("a"), expired);
+        wheel.advance(START_MS + 50, expired);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    @Test
+    void cascadesEntriesBeyondTheFirstLevel() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS);
+        // One level spans 80 ms, two levels 640 ms; these need the second and third levels
+        long secondLevel = START_MS + 200;
+        long thirdLevel = START_MS + 2_000;
+        wheel.add(secondLevel, "second");
+        wheel.add(thirdLevel, "third");
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(secondLevel - TICK_MS, expired);
+        assertEquals(List.of(), expired);
+        wheel.advance(secondLevel, expired);
+        assertEquals(List.of("second"), expired);
+        wheel.advance(thirdLevel - TICK_MS, expired);
+        assertEquals(List.of("second"), expired);
+        wheel.advance(thirdLevel, expired);
+        assertEquals(List.of("second", "third"), expired);
+    }
+
+    @Test
+    void everyEntryExpiresInTheTickOfItsDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START_MS);
+        Random random = new Random(42);
+        TreeMap<Long, Integer> pending = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = START_MS + TICK_MS + random.nextInt(50_000);
+            assertTrue(wheel.add(deadline, deadline));
+            pending.merge(deadline, 1, Integer::sum);
+        }
+
+        long now = START_MS;
+        while (!pending.isEmpty()) {
+            now += 1 + random.nextInt(3 * (int) TICK_MS);
+            List<Long> expired = new ArrayList<>();
+            wheel.advance(now, expired);
+            for (long deadline : expired) {
+                // Granularity is one tick: an entry is released once the clock enters its tick
+                assertTrue(deadline - (deadline % TICK_MS) <= now, "expired early: " + deadline + " at " + now);
+                pending.merge(deadline, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+            if (!pending.isEmpty()) {
+                // Anything whose tick has been entered must have been released
+                assertTrue(pending.firstKey() >= now - (now % TICK_MS) + TICK_MS,
+                        "late: " + pending.firstKey() + " still pending at " + now);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    // Low iteration counts keep the test fast; the format and checks are the same
+    private final PasswordHasher hasher = hasher(1_000);
+
+    @Test
+    void hashMatchesOnlyTheOriginalPassword() {
+        String stored = hasher.hash("correct horse");
+        assertTrue(PasswordHasher.isHashed(stored));
+        assertTrue(hasher.matches("correct horse", stored));
+        assertFalse(hasher.matches("correct horse ", stored));
+        assertFalse(hasher.matches(null, stored));
+        assertFalse(hasher.matches("correct horse", null));
+    }
+
+    @Test
+    void everyHashGetsItsOwnSalt() {
+        assertNotEquals(hasher.hash("same"), hasher.hash("same"));
+    }
+
+    @Test
+    void cachedVerificationStillRejectsWrongPasswords() {
+        String stored = hasher.hash("secret");
+        assertTrue(hasher.matches("secret", stored));
+        assertTrue(hasher.matches("secret", stored));
+        assertFalse(hasher.matches("not secret", stored));
+    }
+
+    @Test
+    void verifiesHashesWrittenWithOtherIterationCounts() {
+        String older = hasher(500).hash("secret");
+        assertTrue(hasher.matches("secret", older));
+        assertTrue(hasher.needsRehash(older));
+        assertFalse(hasher.needsRehash(hasher.hash("secret")));
+        assertFalse(hasher(2_000).needsRehash(hasher(4_000).hash("secret")));
+    }
+
+    @Test
+    void legacyPlaintextRowsMatchAndNeedRehash() {
+        assertTrue(hasher.matches("plain", "plain"));
+        assertFalse(hasher.matches("other", "plain"));
+        assertTrue(hasher.needsRehash("plain"));
+    }
+
+    @Test
+    void corruptHashesMatchNothing() {
+        assertFalse(hasher.matches("secret", "pbkdf2$abc$c2FsdA$aGFzaA"));
+        assertFalse(hasher.matches("secret", "pbkdf2$1000$not base64!$aGFzaA"));
+        assertFalse(hasher.matches("secret", "pbkdf2$1000$c2FsdA"));
+        assertTrue(hasher.needsRehash("pbkdf2$abc$c2FsdA$aGFzaA"));
+    }
+
+    @Test
+    void recognisesCompleteHashesOnly() {
+        assertTrue(PasswordHasher.isWellFormed(hasher.hash("secret")));
+        assertFalse(PasswordHasher.isWellFormed("secret"));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$1000$c2FsdA"));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$0$c2FsdA$" + "A".repeat(43)));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$999999999$c2FsdA$" + "A".repeat(43)));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$1000$c2FsdA$aGFzaA"));
+    }
+
+    private static PasswordHasher hasher(int iterations) {
+        AuthProperties properties = new AuthProperties();
+        properties.setHashIterations(iterations);
+        return new PasswordHasher(properties);
+    }
+}
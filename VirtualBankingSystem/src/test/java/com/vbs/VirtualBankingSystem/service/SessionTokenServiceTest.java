@@ -0,0 +1,80 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import com.vbs.VirtualBankingSystem.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("another-32-byte-secret-for-tests".getBytes());
+
+    private final SessionTokenService service = service(SECRET, false);
+
+    @Test
+    void verifiesItsOwnTokens() {
+        assertEquals(OptionalLong.of(42), service.verify(service.issue(42L)));
+    }
+
+    @Test
+    void nodesSharingTheSecretAcceptEachOthersTokens() {
+        assertEquals(OptionalLong.of(42), service(SECRET, true).verify(service.issue(42L)));
+        assertTrue(service(OTHER_SECRET, true).verify(service.issue(42L)).isEmpty());
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        long now = Instant.now().getEpochSecond();
+        assertTrue(service.verify(service.issue(42L, now - 1)).isEmpty());
+        assertTrue(service.verify(service.issue(42L, now)).isEmpty());
+        assertEquals(OptionalLong.of(42), service.verify(service.issue(42L, now + 60)));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = service.issue(42L);
+        String forged = service(OTHER_SECRET, false).issue(43L);
+        // Payload of one token with the signature of another
+        String spliced = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+        assertTrue(service.verify(spliced).isEmpty());
+        assertTrue(service.verify(token.substring(0, token.length() - 2)).isEmpty());
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertTrue(service.verify(null).isEmpty());
+        assertTrue(service.verify("").isEmpty());
+        assertTrue(service.verify("no-dot").isEmpty());
+        assertTrue(service.verify("***.***").isEmpty());
+        assertTrue(service.verify("AAAA.AAAA").isEmpty());
+    }
+
+    @Test
+    void refusesToStartWithoutASecretWhenTokensAreRequired() {
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> service("", true));
+        assertTrue(error.getMessage().contains("VBS_TOKEN_SECRET"));
+        service("", false);
+    }
+
+    @Test
+    void reportsUnusableSecretsClearly() {
+        assertTrue(assertThrows(IllegalStateException.class, () -> service("${VBS_TOKEN_SECRET}", true))
+                .getMessage().contains("not valid base64"));
+        assertTrue(assertThrows(IllegalStateException.class, () -> service("c2hvcnQ=", true))
+                .getMessage().contains("at least 32 bytes"));
+    }
+
+    private static SessionTokenService service(String secret, boolean requireToken) {
+        AuthProperties properties = new AuthProperties();
+        properties.setTokenSecret(secret);
+        properties.setRequireToken(requireToken);
+        return new SessionTokenService(properties);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vbs.VirtualBankingSystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionSearchIndexTest {
+
+    private static final byte DEPOSIT = 0;
+    private static final byte WITHDRAWAL = 1;
+
+    private final TransactionSearchIndex index = new TransactionSearchIndex();
+
+    @Test
+    void tokenizesOnLettersAndDigitsInLowerCase() {
+        assertEquals(List.of("transfer", "to", "jane", "doe", "rent", "2025"),
+                TransactionSearchIndex.tokenize("Transfer to JANE Doe - rent/2025!"));
+        assertEquals(List.of("café", "42"), TransactionSearchIndex.tokenize("  Café#42  "));
+        assertTrue(TransactionSearchIndex.tokenize(null).isEmpty());
+        assertTrue(TransactionSearchIndex.tokenize(" -- ").isEmpty());
+    }
+
+    @Test
+    void postingListsSurviveMultiByteDeltas() {
+        // Gaps of 1, 200 and 20_000 documents between matches need one-, two- and three-byte varints
+        List<Integer> matching = List.of(0, 1, 201, 20_201, 20_202);
+        for (int doc = 0; doc <= 20_202; doc++) {
+            add(doc, DEPOSIT, 100, doc, matching.contains(doc) ? "rare rent" : "rent");
+        }
+
+        List<Long> ids = index.search(List.of("rare"), null, null, null, null, null, 10);
+
+        assertEquals(List.of(20_202L, 20_201L, 201L, 1L, 0L), ids);
+        assertEquals(20_203, index.search(List.of("rent"), null, null, null, null, null, 30_000).size());
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        add(1, DEPOSIT, 100, 1, "salary march");
+        add(2, DEPOSIT, 100, 2, "salary april");
+        add(3, WITHDRAWAL, 100, 3, "rent april");
+        add(4, DEPOSIT, 100, 4, "april salary bonus");
+
+        assertEquals(List.of(4L, 2L), index.search(List.of("salary", "april"), null, null, null, null, null, 10));
+        assertEquals(List.of(), index.search(List.of("salary", "may"), null, null, null, null, null, 10));
+        assertEquals(List.of(3L), index.search(List.of("april"), WITHDRAWAL, null, null, null, null, 10));
+    }
+
+    @Test
+    void filtersOnAmountAndTimeAndReturnsNewestFirst() {
+        add(10, DEPOSIT, 500, 3_000, "coffee");
+        add(11, DEPOSIT, 1_500, 1_000, "coffee");
+        add(12, DEPOSIT, 2_500, 2_000, "coffee");
+
+        assertEquals(List.of(10L, 12L, 11L), index.search(List.of(), null, null, null, null, null, 10));
+        assertEquals(List.of(12L, 11L), index.search(List.of("coffee"), null, 1_000L, 3_000L, null, null, 10));
+        assertEquals(List.of(12L), index.search(List.of("coffee"), null, null, null, 1_500L, 2_500L, 10));
+        assertEquals(List.of(10L), index.search(List.of("coffee"), null, null, null, null, null, 1));
+    }
+
+    @Test
+    void reAddingTheSameTransactionIsIgnored() {
+        // A rebuild replays buffered writes and catch-up reloads rows the index may already hold
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(add(id, DEPOSIT, 100, id, "refund"));
+            ids.add(id);
+        }
+        for (long id : ids) {
+            assertFalse(add(id, DEPOSIT, 100, id, "refund"));
+        }
+
+        assertEquals(1_000, index.size());
+        assertEquals(1_000L, index.maxTransactionId());
+        assertEquals(1_000, index.search(List.of("refund"), null, null, null, null, null, 5_000).size());
+    }
+
+    private boolean add(long id, byte type, long cents, long timestamp, String description) {
+        return index.add(id, type, cents, timestamp, description, UnaryOperator.identity());
+    }
+}